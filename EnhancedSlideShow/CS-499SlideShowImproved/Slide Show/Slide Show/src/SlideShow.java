@@ -1,6 +1,28 @@
 import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBuffer;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
 import javax.swing.JFrame;
 import javax.swing.*;
 
@@ -12,59 +34,63 @@ import javax.swing.*;
  * 
  * Navigation is controlled using "Previous" and "Next" buttons,
  * with wrap-around cycling between slides.
+ *
+ * The slides come from a manifest, resources/slides.properties unless
+ * another file is given on the command line. One image panel and one
+ * description label are rebound to whichever slide is current, so the
+ * component tree stays the same size however many slides there are and
+ * a deck of thousands starts as quickly as one of ten.
+ *
+ * Slide images are decoded on a background pool and handed to the
+ * Event Dispatch Thread when ready, so navigation never waits on disk
+ * or JPEG decoding. A slide shows a placeholder until its image arrives.
+ * Decoded images live in a byte-budgeted LRU cache, and the slides either
+ * side of the current one are prefetched, so heap use stays bounded
+ * however many slides the deck holds. Each image is scaled to the panel
+ * once and only scaled again when the frame is resized.
  */
 
 public class SlideShow extends JFrame {
 	
 	private static final long serialVersionUID = 1L; // for serialization compatibility
 	
-	private JPanel slidePane;   // Panel for image slides
 	private JPanel textPane;    // Panel for text descriptions
 	private JPanel buttonPane;  // Panel for navigation buttons
-	private CardLayout card;    // Layout for image panel
-	private CardLayout cardText;// Layout for text panel
 	private JButton btnPrev;    // "Previous" button
 	private JButton btnNext;    // "Next" button
-	private int currentSlideIndex = 0; // Tracks current slide index
-
-    // --- Top 10 cities/prefectures in Japan ---
-    private final String[] images = {
-        "/resources/Tokyo.jpg",
-        "/resources/Osaka.jpg",
-        "/resources/Kyoto.jpg",
-        "/resources/Kobe.jpg",
-        "/resources/Nara.jpg",
-        "/resources/Sapporo.jpg",
-        "/resources/Himeji.jpg",
-        "/resources/Okinawa.jpg",
-        "/resources/Hiroshima.jpg",
-        "/resources/Yokohama.jpg"
-    };
-
-    // --- Descriptions for each slide ---
-    private final String[] descriptions = {
-        "<html><body><font size='5'>#1 Tokyo</font> <br>Japan’s bustling capital, famous for its bustling streets in Shibuya, iconic nightlife like Golden Gai located in Shinjuku, Akihabara’s anime/otaku culture, and historic temples like Senso-ji Asakusa, it truly is the best combination of historical and modern attractions alike.</body></html>",
-        "<html><body><font size='5'>#2 Osaka</font> <br>Known as Japan’s kitchen, Osaka offers takoyaki and okonomiyaki, Osaka Castle, Universal Studios Japan, and quite its own nightlife in places like Dotonbori.</body></html>",
-        "<html><body><font size='5'>#3 Kyoto</font> <br>The cultural heart of Japan, filled with temples, shrines, torii  gates, and geisha, as well as serene scenic places like Arashiyama Bamboo Forest.</body></html>",
-        "<html><body><font size='5'>#4 Kobe</font> <br>Famous for the most prized beef in the world, Kobe beef,  beautiful harbor, and its blend of Japanese and Western architecture, the steak itself is worth the trip.</body></html>",
-        "<html><body><font size='5'>#5 Nara</font> <br>Known for its parks, templs, and shrines, Nara is home to friendly bowing deer, the giant Buddha at Todai-ji Temple, and tranquil Japanese gardens.</body></html>",
-        "<html><body><font size='5'>#6 Sapporo</font> <br>Known for the Sapporo Snow Festival, skiing in nearby resorts, fresh seafood, onsens, and Sapporo beer.</body></html>",
-        "<html><body><font size='5'>#7 Himeji</font> <br>Home to Himeji Castle, Japan’s most spectacular and well-preserved feudal-era castle, and its delicious hole-in-the-wall spots to eat.</body></html>",
-        "<html><body><font size='5'>#8 Okinawa</font> <br>Tropical islands with stunning beaches, coral reef diving, unique Ryukyu culture, and Okinawan cuisine.</body></html>",
-        "<html><body><font size='5'>#9 Hiroshima</font> <br>Peace Memorial Park and Museum, Hiroshima-style okonomiyaki, and the famous floating torii gate of Miyajima.</body></html>",
-        "<html><body><font size='5'>#10 Yokohama</font> <br>Japan’s second-largest city, known for its Chinatown, Cup Noodles Museum, Landmark Tower, beautiful waterfront views, and it also has quite the nightlife.</body></html>"
-    };
-
-    // --- Background colors for each description panel ---
-    private final Color[] colors = {
-        Color.PINK, Color.GREEN, Color.YELLOW, Color.ORANGE, Color.RED,
-        Color.CYAN, Color.MAGENTA, Color.LIGHT_GRAY, Color.WHITE, Color.GRAY
-    };
-    
+	private volatile int currentSlideIndex = 0; // Tracks current slide index, read by decoder threads
+	private final SlideManifest manifest; // Slides to show, in order
+	private SlideImagePanel slideView;    // Image panel, rebound to the current slide
+	private JLabel lblTextArea;           // Description label, rebound to the current slide
+
+    // --- Image decoding and caching ---
+    private static final int DECODER_THREADS = 2;
+    private static final int PREFETCH_DISTANCE = 2;                   // slides decoded ahead and behind
+    private static final int MAX_BYTES_PER_PIXEL = 4;                 // 32-bit ARGB, the largest decoded format
+
+    // Daemon threads, so a pending decode never keeps the application alive
+    private final ExecutorService decoder = Executors.newFixedThreadPool(DECODER_THREADS, task -> {
+        Thread thread = new Thread(task, "slide-decoder");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Dimension maxDecodedSize = Toolkit.getDefaultToolkit().getScreenSize(); // never shown larger
+    private final ImageCache imageCache = new ImageCache(cacheBudgetBytes(maxDecodedSize));
+    private final Set<Integer> decoding = ConcurrentHashMap.newKeySet(); // slides queued or being decoded
+
     /** 
-     * Constructor initializes the slideshow application by calling initComponent(). 
+     * Constructor initializes the slideshow application with the bundled
+     * manifest by calling initComponent(). 
      */
     public SlideShow() throws HeadlessException {
+        this(SlideManifest.loadDefault());
+    }
+
+    /**
+     * Constructor for a slideshow of the slides in the given manifest.
+     */
+    SlideShow(SlideManifest manifest) throws HeadlessException {
+        this.manifest = manifest;
         initComponent();
     }
 
@@ -72,10 +98,9 @@ public class SlideShow extends JFrame {
      * Initializes the GUI components, panels, layouts, and buttons.
      */
     private void initComponent() {
-        card = new CardLayout();
-        cardText = new CardLayout();
-        slidePane = new JPanel(card);
-        textPane = new JPanel(cardText);
+        slideView = new SlideImagePanel();
+        lblTextArea = new JLabel("", JLabel.CENTER);
+        textPane = new JPanel(new BorderLayout());
         buttonPane = new JPanel();
         btnPrev = new JButton("Previous");
         btnNext = new JButton("Next");
@@ -83,21 +108,14 @@ public class SlideShow extends JFrame {
         // Frame setup
         setSize(800, 600);
         setLocationRelativeTo(null);
-        setTitle("Top 10 Places to Visit in Japan");
+        setTitle(manifest.getTitle());
         setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
         getContentPane().setLayout(new BorderLayout());
 
-        // Add slides dynamically
-        for (int i = 0; i < images.length; i++) {
-            JLabel lblSlide = new JLabel(getResizeIcon(images[i]), JLabel.CENTER);
-            JLabel lblTextArea = new JLabel(descriptions[i], JLabel.CENTER);
-            slidePane.add(lblSlide, "card" + i);
-            textPane.add(lblTextArea, "cardText" + i);
-        }
-
-        textPane.setBackground(colors[currentSlideIndex]);
+        textPane.add(lblTextArea, BorderLayout.CENTER);
+        bindCurrentSlide();
 
-        getContentPane().add(slidePane, BorderLayout.CENTER);
+        getContentPane().add(slideView, BorderLayout.CENTER);
         getContentPane().add(textPane, BorderLayout.SOUTH);
 
         // Buttons
@@ -119,18 +137,34 @@ public class SlideShow extends JFrame {
         getContentPane().add(buttonPane, BorderLayout.NORTH);
     }
 
+    /**
+     * Stops the decoder pool along with the window, so a disposed slideshow
+     * leaves no threads behind.
+     */
+    @Override
+    public void dispose() {
+        decoder.shutdownNow();
+        super.dispose();
+    }
+
     public void goPrevious() {
-        card.previous(slidePane);
-        cardText.previous(textPane);
-        currentSlideIndex = (currentSlideIndex - 1 < 0) ? images.length - 1 : currentSlideIndex - 1;
-        textPane.setBackground(colors[currentSlideIndex]);
+        goToSlide((currentSlideIndex - 1 < 0) ? manifest.size() - 1 : currentSlideIndex - 1);
     }
 
     public void goNext() {
-        card.next(slidePane);
-        cardText.next(textPane);
-        currentSlideIndex = (currentSlideIndex + 1) % images.length;
-        textPane.setBackground(colors[currentSlideIndex]);
+        goToSlide((currentSlideIndex + 1) % manifest.size());
+    }
+
+    /**
+     * Shows the slide at index, counting from 0. Any slide is reached in one
+     * step, with no walk through the slides in between.
+     */
+    public void goToSlide(int index) {
+        if (index < 0 || index >= manifest.size()) {
+            throw new IndexOutOfBoundsException("Slide " + index + " of " + manifest.size());
+        }
+        currentSlideIndex = index;
+        bindCurrentSlide();
     }
     
     //Getter for testing
@@ -138,13 +172,372 @@ public class SlideShow extends JFrame {
         return currentSlideIndex;
     }
 
-    private String getResizeIcon(String path) {
-        return "<html><body><img width='800' height='500' src='" + getClass().getResource(path) + "'</body></html>";
+    /**
+     * Rebinds the image panel and description label to the current slide, like a
+     * list view recycling its rows. The panel only holds the current image, so the
+     * cache alone decides which images stay in memory. The image is shown from the
+     * cache when it is there, and the slides around the current one are
+     * prefetched, nearest first.
+     */
+    private void bindCurrentSlide() {
+        lblTextArea.setText(manifest.getDescription(currentSlideIndex));
+        textPane.setBackground(manifest.getColor(currentSlideIndex));
+
+        BufferedImage image = imageCache.get(currentSlideIndex);
+        slideView.setImage(image, "Loading...");
+        if (image == null) {
+            requestSlideImage(currentSlideIndex);
+        }
+        int size = manifest.size();
+        for (int distance = 1; distance <= PREFETCH_DISTANCE; distance++) {
+            requestSlideImage((currentSlideIndex + distance) % size);
+            requestSlideImage(((currentSlideIndex - distance) % size + size) % size);
+        }
+    }
+
+    /**
+     * Decodes a slide's image on the decoder pool unless it is cached or already
+     * on its way, then caches it on the Event Dispatch Thread and shows it if the
+     * slide is still current.
+     */
+    private void requestSlideImage(int index) {
+        if (decoder.isShutdown() || imageCache.get(index) != null || !decoding.add(index)) {
+            return;
+        }
+        URL url = manifest.getImageUrl(index);
+        decoder.execute(() -> {
+            // Skip prefetches the user has already navigated away from
+            if (!isNearCurrentSlide(index)) {
+                decoding.remove(index);
+                return;
+            }
+            BufferedImage image = null;
+            try {
+                image = decodeImage(url);
+            } catch (RuntimeException | OutOfMemoryError e) {
+                // e.g. a bad ICC profile or an image too large to hold; shown as unavailable
+            } finally {
+                // Always release the slide, or it would stay on "Loading..." and never be requested again
+                BufferedImage decoded = image;
+                SwingUtilities.invokeLater(() -> showDecodedImage(index, decoded));
+            }
+        });
+    }
+
+    // Runs on the Event Dispatch Thread once a decode finishes; image is null if it failed
+    private void showDecodedImage(int index, BufferedImage image) {
+        decoding.remove(index);
+        if (image != null) {
+            imageCache.put(index, image);
+        }
+        if (index == currentSlideIndex) {
+            slideView.setImage(image, "Image unavailable");
+        }
+    }
+
+    // Room for the whole prefetch window at the largest decoded size, so prefetched
+    // slides are not evicted before they are shown, on a 4K screen as on a laptop
+    static long cacheBudgetBytes(Dimension maxDecodedSize) {
+        long slideBytes = (long) maxDecodedSize.width * maxDecodedSize.height * MAX_BYTES_PER_PIXEL;
+        return slideBytes * (2 * PREFETCH_DISTANCE + 1);
+    }
+
+    // True if index is within PREFETCH_DISTANCE of the current slide, counting wrap-around
+    private boolean isNearCurrentSlide(int index) {
+        int distance = Math.abs(index - currentSlideIndex);
+        return Math.min(distance, manifest.size() - distance) <= PREFETCH_DISTANCE;
+    }
+
+    /**
+     * Reads the image with ImageIO, no larger than the screen it will be shown on.
+     * Photos several times the screen size skip rows and columns while decoding,
+     * and what is still too large is scaled down once here rather than on every
+     * resize. Runs on a decoder thread. Returns null if the image is missing or unreadable.
+     */
+    private BufferedImage decodeImage(URL url) {
+        if (url == null) {
+            return null;
+        }
+        try (InputStream in = url.openStream();
+             ImageInputStream input = ImageIO.createImageInputStream(in)) {
+            Iterator<ImageReader> readers = input != null ? ImageIO.getImageReaders(input) : null;
+            if (readers == null || !readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                int step = Math.max(1, Math.min(reader.getWidth(0) / maxDecodedSize.width,
+                        reader.getHeight(0) / maxDecodedSize.height));
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceSubsampling(step, step, 0, 0);
+                BufferedImage image = reader.read(0, param);
+
+                Dimension fit = fitWithin(image.getWidth(), image.getHeight(), maxDecodedSize.width, maxDecodedSize.height);
+                if (fit.width < image.getWidth()) {
+                    image = scaleImage(image, fit.width, fit.height, null);
+                }
+                return image;
+            } finally {
+                reader.dispose();
+            }
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    // Largest size with the image's aspect ratio that fits in maxWidth x maxHeight
+    static Dimension fitWithin(int width, int height, int maxWidth, int maxHeight) {
+        double scale = Math.min((double) maxWidth / width, (double) maxHeight / height);
+        return new Dimension(Math.max(1, (int) Math.round(width * scale)), Math.max(1, (int) Math.round(height * scale)));
+    }
+
+    /**
+     * Scales with bilinear steps that at most halve the size each time, which keeps
+     * large reductions smooth where a single bilinear step would alias. The result
+     * is compatible with config when one is given, so drawing it is a straight copy.
+     */
+    static BufferedImage scaleImage(BufferedImage source, int width, int height, GraphicsConfiguration config) {
+        BufferedImage current = source;
+        int stepWidth = source.getWidth();
+        int stepHeight = source.getHeight();
+        do {
+            stepWidth = Math.max(width, stepWidth / 2);
+            stepHeight = Math.max(height, stepHeight / 2);
+            if (stepWidth == width || stepHeight == height) {
+                stepWidth = width;
+                stepHeight = height;
+            }
+            boolean last = stepWidth == width && stepHeight == height;
+            BufferedImage next = (last && config != null)
+                    ? config.createCompatibleImage(width, height, source.getTransparency())
+                    : new BufferedImage(stepWidth, stepHeight,
+                            source.getTransparency() == Transparency.OPAQUE ? BufferedImage.TYPE_INT_RGB : BufferedImage.TYPE_INT_ARGB);
+            Graphics2D g = next.createGraphics();
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g.drawImage(current, 0, 0, stepWidth, stepHeight, null);
+            g.dispose();
+            current = next;
+        } while (current.getWidth() != width || current.getHeight() != height);
+        return current;
+    }
+
+    //Getter for testing; true once the slide's image has been decoded and shown
+    boolean isSlideImageLoaded(int index) {
+        return index == currentSlideIndex && slideView.getImage() != null;
+    }
+
+    //Getter for testing; true while the slide's decoded image is in the cache
+    boolean isSlideImageCached(int index) {
+        return imageCache.get(index) != null;
+    }
+
+    /**
+     * The slides of a deck, read from a properties manifest laid out like
+     * resources/slides.properties. Only the manifest's strings are kept; a
+     * slide's description, color and image location are worked out when it
+     * is shown, so startup costs little more than reading the file.
+     */
+    static class SlideManifest {
+
+        static final String DEFAULT_MANIFEST = "/resources/slides.properties";
+
+        private final URL base;
+        private final Properties entries;
+        private final int size;
+
+        private SlideManifest(URL base, Properties entries) {
+            this.base = base;
+            this.entries = entries;
+            int count = 0;
+            while (entries.getProperty(key(count, "image")) != null) {
+                count++;
+            }
+            this.size = count;
+        }
+
+        static SlideManifest load(URL url) throws IOException {
+            Properties entries = new Properties();
+            try (Reader reader = new InputStreamReader(url.openStream(), StandardCharsets.UTF_8)) {
+                entries.load(reader);
+            }
+            SlideManifest manifest = new SlideManifest(url, entries);
+            if (manifest.size() == 0) {
+                throw new IOException("No slides in " + url);
+            }
+            return manifest;
+        }
+
+        // The bundled deck; failing to read it means the application was packaged wrong
+        static SlideManifest loadDefault() {
+            URL url = SlideShow.class.getResource(DEFAULT_MANIFEST);
+            if (url == null) {
+                throw new IllegalStateException(DEFAULT_MANIFEST + " is missing");
+            }
+            try {
+                return load(url);
+            } catch (IOException e) {
+                throw new IllegalStateException("Could not read " + DEFAULT_MANIFEST, e);
+            }
+        }
+
+        int size() {
+            return size;
+        }
+
+        String getTitle() {
+            return entries.getProperty("title", "Slide Show");
+        }
+
+        // A leading / means a classpath resource, anything else is relative to the manifest
+        URL getImageUrl(int index) {
+            String path = entries.getProperty(key(index, "image")).trim();
+            try {
+                return path.startsWith("/") ? SlideShow.class.getResource(path) : new URL(base, path);
+            } catch (MalformedURLException e) {
+                return null;
+            }
+        }
+
+        String getDescription(int index) {
+            return "<html><body><font size='5'>" + entries.getProperty(key(index, "title"), "") +
+                    "</font> <br>" + entries.getProperty(key(index, "text"), "") + "</body></html>";
+        }
+
+        // A java.awt.Color constant such as LIGHT_GRAY, or #RRGGBB; white if missing or unknown
+        Color getColor(int index) {
+            String value = entries.getProperty(key(index, "color"), "").trim();
+            try {
+                if (value.startsWith("#")) {
+                    return Color.decode(value);
+                }
+                return (Color) Color.class.getField(value.toUpperCase()).get(null);
+            } catch (NumberFormatException | ReflectiveOperationException | ClassCastException e) {
+                return Color.WHITE;
+            }
+        }
+
+        // Slides are numbered from 1 in the file
+        private static String key(int index, String field) {
+            return "slide." + (index + 1) + "." + field;
+        }
+    }
+
+    /**
+     * Paints a slide image scaled to fit the panel with its aspect ratio kept,
+     * or a placeholder message while there is none. The scaled copy is made on
+     * the first paint after the image or the panel size changes, so every other
+     * repaint is a plain copy of a screen-compatible image.
+     */
+    static class SlideImagePanel extends JComponent {
+
+        private static final long serialVersionUID = 1L;
+
+        private BufferedImage image;
+        private String placeholder = "Loading...";
+        private BufferedImage scaledImage;
+
+        // Placeholder text looks like the JLabel text used elsewhere
+        SlideImagePanel() {
+            setFont(UIManager.getFont("Label.font"));
+            setForeground(UIManager.getColor("Label.foreground"));
+        }
+
+        void setImage(BufferedImage image, String placeholder) {
+            if (image == this.image && (image != null || placeholder.equals(this.placeholder))) {
+                return;
+            }
+            this.image = image;
+            this.placeholder = placeholder;
+            scaledImage = null;
+            repaint();
+        }
+
+        BufferedImage getImage() {
+            return image;
+        }
+
+        //Getter for testing
+        BufferedImage getScaledImage() {
+            return scaledImage;
+        }
+
+        @Override
+        protected void paintComponent(Graphics g) {
+            int width = getWidth();
+            int height = getHeight();
+            if (width <= 0 || height <= 0) {
+                return;
+            }
+            if (image == null) {
+                scaledImage = null;
+                FontMetrics metrics = g.getFontMetrics(getFont());
+                g.setColor(getForeground());
+                g.setFont(getFont());
+                g.drawString(placeholder, (width - metrics.stringWidth(placeholder)) / 2,
+                        (height - metrics.getHeight()) / 2 + metrics.getAscent());
+                return;
+            }
+
+            Dimension fit = fitWithin(image.getWidth(), image.getHeight(), width, height);
+            if (scaledImage == null || scaledImage.getWidth() != fit.width || scaledImage.getHeight() != fit.height) {
+                scaledImage = scaleImage(image, fit.width, fit.height, getGraphicsConfiguration());
+            }
+            g.drawImage(scaledImage, (width - fit.width) / 2, (height - fit.height) / 2, null);
+        }
+    }
+
+    /**
+     * Least-recently-used cache of decoded slide images, bounded by the bytes
+     * their pixels take rather than by how many there are.
+     */
+    static class ImageCache {
+
+        private final long budgetBytes;
+        private final LinkedHashMap<Integer, BufferedImage> images = new LinkedHashMap<>(16, 0.75f, true);
+        private long usedBytes = 0;
+
+        ImageCache(long budgetBytes) {
+            this.budgetBytes = budgetBytes;
+        }
+
+        synchronized BufferedImage get(int index) {
+            return images.get(index);
+        }
+
+        // Evicts least recently used images until the new one fits; one larger than the whole budget is not kept
+        synchronized void put(int index, BufferedImage image) {
+            long size = sizeOf(image);
+            if (size > budgetBytes) {
+                return;
+            }
+            BufferedImage replaced = images.put(index, image);
+            usedBytes += size - (replaced != null ? sizeOf(replaced) : 0);
+            Iterator<Map.Entry<Integer, BufferedImage>> eldest = images.entrySet().iterator();
+            while (usedBytes > budgetBytes) {
+                usedBytes -= sizeOf(eldest.next().getValue());
+                eldest.remove();
+            }
+        }
+
+        synchronized long getUsedBytes() {
+            return usedBytes;
+        }
+
+        static long sizeOf(BufferedImage image) {
+            DataBuffer buffer = image.getRaster().getDataBuffer();
+            return (long) buffer.getSize() * buffer.getNumBanks() * DataBuffer.getDataTypeSize(buffer.getDataType()) / 8;
+        }
     }
 
-    public static void main(String[] args) {
+    // An external manifest can be given as the first argument
+    public static void main(String[] args) throws IOException {
+        SlideManifest manifest = args.length > 0
+                ? SlideManifest.load(new File(args[0]).toURI().toURL())
+                : SlideManifest.loadDefault();
         EventQueue.invokeLater(() -> {
-            SlideShow ss = new SlideShow();
+            SlideShow ss = new SlideShow(manifest);
             ss.setVisible(true);
         });
     }
@@ -1,6 +1,18 @@
 import static org.junit.jupiter.api.Assertions.*;
+import java.awt.Color;
+import java.awt.Component;
+import java.awt.Container;
+import java.awt.Dimension;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import javax.swing.SwingUtilities;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 public class SlideShowTest {
 
@@ -11,6 +23,11 @@ public class SlideShowTest {
         slideShow = new SlideShow();
     }
 
+    @AfterEach
+    void tearDown() {
+        slideShow.dispose();
+    }
+
     @Test
     void testInitialSlideIndex() {
         assertEquals(0, slideShow.getCurrentSlideIndex(), "Initial slide index should be 0 (Tokyo).");
@@ -35,4 +52,150 @@ public class SlideShowTest {
         }
         assertEquals(0, slideShow.getCurrentSlideIndex(), "After 10 nexts, index should wrap around to 0 (Tokyo).");
     }
+
+    @Test
+    void testGoToSlide() {
+        slideShow.goToSlide(7);
+        assertEquals(7, slideShow.getCurrentSlideIndex(), "Jumping should land directly on slide 7 (Okinawa).");
+        slideShow.goNext();
+        assertEquals(8, slideShow.getCurrentSlideIndex(), "Navigation should continue from the slide jumped to.");
+        assertThrows(IndexOutOfBoundsException.class, () -> slideShow.goToSlide(10));
+        assertEquals(8, slideShow.getCurrentSlideIndex(), "An invalid jump should leave the current slide alone.");
+    }
+
+    @Test
+    void testBundledManifest() {
+        SlideShow.SlideManifest manifest = SlideShow.SlideManifest.loadDefault();
+        assertEquals(10, manifest.size());
+        assertTrue(manifest.getDescription(0).contains("#1 Tokyo"));
+        assertEquals(Color.PINK, manifest.getColor(0));
+        assertEquals(Color.LIGHT_GRAY, manifest.getColor(7));
+        assertNotNull(manifest.getImageUrl(9), "Every bundled image should be on the classpath.");
+    }
+
+    @Test
+    void testLargeDeckOnlyMaterializesCurrentSlide(@TempDir Path dir) throws Exception {
+        StringBuilder deck = new StringBuilder();
+        for (int i = 1; i <= 10000; i++) {
+            deck.append("slide.").append(i).append(".image=missing").append(i).append(".jpg\n");
+            deck.append("slide.").append(i).append(".title=#").append(i).append("\n");
+            deck.append("slide.").append(i).append(".color=#336699\n");
+        }
+        Path file = dir.resolve("deck.properties");
+        Files.write(file, deck.toString().getBytes(StandardCharsets.UTF_8));
+
+        SlideShow large = new SlideShow(SlideShow.SlideManifest.load(file.toUri().toURL()));
+        int components = countComponents(large.getContentPane());
+        large.goPrevious();
+        assertEquals(9999, large.getCurrentSlideIndex(), "From index 0, clicking previous should wrap to the last slide.");
+        assertEquals(components, countComponents(large.getContentPane()), "Navigating should not add components.");
+        large.goToSlide(5000);
+        assertEquals(components, countComponents(large.getContentPane()), "Jumping should not add components.");
+        assertTrue(components < 20, "Only the current slide's components should exist.");
+        large.dispose();
+    }
+
+    private static int countComponents(Container container) {
+        int count = 0;
+        for (Component child : container.getComponents()) {
+            count++;
+            if (child instanceof Container) {
+                count += countComponents((Container) child);
+            }
+        }
+        return count;
+    }
+
+    @Test
+    void testSlideImagesDecodeInBackground() throws Exception {
+        // Navigation works before any image has been decoded
+        slideShow.goNext();
+        slideShow.goPrevious();
+        assertEquals(0, slideShow.getCurrentSlideIndex(), "Navigation should not wait for images.");
+
+        long deadline = System.currentTimeMillis() + 10000;
+        boolean[] loaded = new boolean[1];
+        while (!loaded[0] && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+            SwingUtilities.invokeAndWait(() -> loaded[0] = slideShow.isSlideImageLoaded(0));
+        }
+        assertTrue(loaded[0], "The first slide's image should be decoded and shown.");
+    }
+
+    @Test
+    void testNeighborsArePrefetched() throws Exception {
+        slideShow.goNext(); // Osaka, so Tokyo and Kyoto are its neighbors
+
+        long deadline = System.currentTimeMillis() + 10000;
+        boolean[] cached = new boolean[1];
+        while (!cached[0] && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+            SwingUtilities.invokeAndWait(() -> cached[0] = slideShow.isSlideImageCached(0) && slideShow.isSlideImageCached(2));
+        }
+        assertTrue(cached[0], "The slides either side of the current one should be prefetched.");
+    }
+
+    @Test
+    void testImageCacheEvictsLeastRecentlyUsed() {
+        long slideBytes = SlideShow.ImageCache.sizeOf(new BufferedImage(100, 100, BufferedImage.TYPE_INT_RGB));
+        SlideShow.ImageCache cache = new SlideShow.ImageCache(slideBytes * 2);
+
+        cache.put(0, new BufferedImage(100, 100, BufferedImage.TYPE_INT_RGB));
+        cache.put(1, new BufferedImage(100, 100, BufferedImage.TYPE_INT_RGB));
+        cache.get(0); // Slide 1 is now the least recently used
+        cache.put(2, new BufferedImage(100, 100, BufferedImage.TYPE_INT_RGB));
+
+        assertNotNull(cache.get(0));
+        assertNull(cache.get(1), "The least recently used image should be evicted.");
+        assertNotNull(cache.get(2));
+        assertEquals(slideBytes * 2, cache.getUsedBytes(), "The cache should stay within its byte budget.");
+
+        cache.put(3, new BufferedImage(1000, 1000, BufferedImage.TYPE_INT_RGB));
+        assertNull(cache.get(3), "An image larger than the whole budget should not be cached.");
+        assertNotNull(cache.get(0));
+    }
+
+    @Test
+    void testCacheBudgetHoldsPrefetchWindowAtScreenSize() {
+        Dimension screen = new Dimension(1920, 1080);
+        SlideShow.ImageCache cache = new SlideShow.ImageCache(SlideShow.cacheBudgetBytes(screen));
+        for (int i = 0; i < 5; i++) {
+            cache.put(i, new BufferedImage(screen.width, screen.height, BufferedImage.TYPE_INT_ARGB));
+        }
+        for (int i = 0; i < 5; i++) {
+            assertNotNull(cache.get(i), "The current slide and two on each side should all stay cached.");
+        }
+    }
+
+    @Test
+    void testFitWithinKeepsAspectRatio() {
+        assertEquals(new Dimension(800, 450), SlideShow.fitWithin(1600, 900, 800, 500));
+        assertEquals(new Dimension(500, 500), SlideShow.fitWithin(300, 300, 800, 500), "Small images should be enlarged to fit.");
+
+        BufferedImage scaled = SlideShow.scaleImage(new BufferedImage(5357, 3348, BufferedImage.TYPE_3BYTE_BGR), 800, 500, null);
+        assertEquals(800, scaled.getWidth());
+        assertEquals(500, scaled.getHeight());
+    }
+
+    @Test
+    void testSlideImageIsScaledOncePerSize() {
+        SlideShow.SlideImagePanel panel = new SlideShow.SlideImagePanel();
+        panel.setImage(new BufferedImage(1600, 1000, BufferedImage.TYPE_INT_RGB), null);
+        panel.setSize(800, 600);
+        BufferedImage screen = new BufferedImage(800, 600, BufferedImage.TYPE_INT_RGB);
+
+        Graphics2D g = screen.createGraphics();
+        panel.paint(g);
+        BufferedImage scaled = panel.getScaledImage();
+        assertEquals(800, scaled.getWidth());
+        assertEquals(500, scaled.getHeight());
+
+        panel.paint(g);
+        assertSame(scaled, panel.getScaledImage(), "Repainting at the same size should reuse the scaled image.");
+
+        panel.setSize(400, 300);
+        panel.paint(g);
+        g.dispose();
+        assertEquals(400, panel.getScaledImage().getWidth(), "Resizing should scale the image again.");
+    }
 }
\ No newline at end of file
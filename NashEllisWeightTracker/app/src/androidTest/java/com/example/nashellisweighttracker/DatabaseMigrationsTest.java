@@ -0,0 +1,141 @@
+package com.example.nashellisweighttracker;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import android.content.Context;
+import android.database.Cursor;
+import android.database.DatabaseUtils;
+import android.database.sqlite.SQLiteDatabase;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+/**
+ * Upgrades populated databases from older schema versions and checks that no rows are lost.
+ */
+@RunWith(AndroidJUnit4.class)
+public class DatabaseMigrationsTest {
+
+    private static final String TEST_DB = "migration-test.db";
+
+    private Context context;
+
+    @Before
+    public void setUp() {
+        context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        context.deleteDatabase(TEST_DB);
+    }
+
+    @After
+    public void tearDown() {
+        context.deleteDatabase(TEST_DB);
+    }
+
+    @Test
+    public void migrateFromVersion1() {
+        SQLiteDatabase db = openLegacyDatabase(1);
+        db.execSQL("CREATE TABLE users (id INTEGER PRIMARY KEY AUTOINCREMENT, " +
+                "username TEXT UNIQUE, password TEXT)");
+        createVersion2WeightsTable(db);
+        insertSampleRows(db, false);
+        db.close();
+
+        assertMigrated();
+    }
+
+    @Test
+    public void migrateFromVersion2() {
+        SQLiteDatabase db = openLegacyDatabase(2);
+        db.execSQL("CREATE TABLE users (id INTEGER PRIMARY KEY AUTOINCREMENT, " +
+                "username TEXT UNIQUE, password TEXT, goal_weight REAL DEFAULT 0)");
+        createVersion2WeightsTable(db);
+        insertSampleRows(db, true);
+        db.close();
+
+        assertMigrated();
+    }
+
+    private SQLiteDatabase openLegacyDatabase(int version) {
+        SQLiteDatabase db = SQLiteDatabase.openOrCreateDatabase(context.getDatabasePath(TEST_DB), null);
+        db.setVersion(version);
+        return db;
+    }
+
+    private void createVersion2WeightsTable(SQLiteDatabase db) {
+        db.execSQL("CREATE TABLE weights (id INTEGER PRIMARY KEY AUTOINCREMENT, " +
+                "user_id INTEGER, weight REAL, date TEXT, " +
+                "FOREIGN KEY(user_id) REFERENCES users(id))");
+    }
+
+    private void insertSampleRows(SQLiteDatabase db, boolean withGoalWeight) {
+        if (withGoalWeight) {
+            db.execSQL("INSERT INTO users (username, password, goal_weight) VALUES ('alice', 'secret', 150)");
+            db.execSQL("INSERT INTO users (username, password, goal_weight) VALUES ('bobby', 'hunter2', 180)");
+        } else {
+            db.execSQL("INSERT INTO users (username, password) VALUES ('alice', 'secret')");
+            db.execSQL("INSERT INTO users (username, password) VALUES ('bobby', 'hunter2')");
+        }
+        db.execSQL("INSERT INTO weights (user_id, weight, date) VALUES (1, 160.5, 'Jan 01, 2024')");
+        db.execSQL("INSERT INTO weights (user_id, weight, date) VALUES (1, 158.0, 'Jan 08, 2024')");
+        db.execSQL("INSERT INTO weights (user_id, weight, date) VALUES (2, 190.2, 'Jan 02, 2024')");
+        db.execSQL("INSERT INTO weights (user_id, weight, date) VALUES (2, 200.0, 'Dec 25, 1969')");
+    }
+
+    private void assertMigrated() {
+        SQLiteHelper dbHelper = new SQLiteHelper(context, TEST_DB);
+        try {
+            SQLiteDatabase db = dbHelper.getReadableDatabase();
+            assertEquals(DatabaseMigrations.LATEST_VERSION, db.getVersion());
+            assertEquals(2, DatabaseUtils.queryNumEntries(db, "users"));
+            assertEquals(4, DatabaseUtils.queryNumEntries(db, "weights"));
+            assertEquals(2, DatabaseUtils.queryNumEntries(db, "weights", "user_id=?", new String[]{"1"}));
+            assertTrue(dbHelper.validateLogin("alice", "secret"));
+
+            try (Cursor cursor = db.rawQuery("SELECT date FROM weights WHERE id = 1", null)) {
+                assertTrue(cursor.moveToFirst());
+                assertEquals(19723, cursor.getInt(0)); // Jan 01, 2024
+            }
+
+            // Both of alice's January entries land in one month bucket
+            try (Cursor cursor = dbHelper.getRollups(1, WeightRollups.PERIOD_MONTH, 0, Integer.MAX_VALUE)) {
+                assertTrue(cursor.moveToFirst());
+                assertEquals(EpochDays.monthOf(19723), cursor.getInt(0));
+                assertEquals(2, cursor.getInt(1));
+            }
+
+            // A week before 1970 is backfilled into the bucket later inserts update
+            int lateDecember = -7; // Dec 25, 1969
+            int week = WeightRollups.bucketOf(WeightRollups.PERIOD_WEEK, lateDecember);
+            assertEquals(-1, week);
+            dbHelper.insertWeight(2, 198f, lateDecember + 1);
+            try (Cursor cursor = dbHelper.getRollups(2, WeightRollups.PERIOD_WEEK, week - 1, week + 1)) {
+                assertTrue(cursor.moveToFirst());
+                assertEquals(week, cursor.getInt(0));
+                assertEquals(2, cursor.getInt(1));
+                assertFalse("Pre-1970 week split across buckets", cursor.moveToNext());
+            }
+
+            assertIndexExists(db, "idx_weights_user_id");
+            assertIndexExists(db, "idx_weights_user_date");
+            assertIndexExists(db, "idx_sms_outbox_due");
+            assertIndexExists(db, "idx_sms_outbox_dedupe");
+            assertEquals(0, DatabaseUtils.queryNumEntries(db, "goal_progress"));
+        } finally {
+            dbHelper.close();
+        }
+    }
+
+    private void assertIndexExists(SQLiteDatabase db, String name) {
+        try (Cursor cursor = db.rawQuery(
+                "SELECT name FROM sqlite_master WHERE type='index' AND name=?", new String[]{name})) {
+            assertTrue(name + " missing after upgrade", cursor.moveToFirst());
+        }
+    }
+}
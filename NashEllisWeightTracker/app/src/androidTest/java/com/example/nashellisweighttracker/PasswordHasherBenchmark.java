@@ -0,0 +1,50 @@
+package com.example.nashellisweighttracker;
+
+import static org.junit.Assert.assertTrue;
+
+import android.util.Log;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.Arrays;
+
+/**
+ * Finds the PBKDF2 iteration count that keeps a login within LOGIN_BUDGET_MILLIS
+ * on the device under test. Run on the slowest supported device and use the
+ * logged value, under the "PasswordBenchmark" tag, for DEFAULT_ITERATIONS.
+ */
+@RunWith(AndroidJUnit4.class)
+public class PasswordHasherBenchmark {
+
+    private static final String TAG = "PasswordBenchmark";
+    private static final long LOGIN_BUDGET_MILLIS = 250;
+
+    @Test
+    public void calibrateIterationsForLoginBudget() {
+        int calibrated = PasswordHasher.calibrate(LOGIN_BUDGET_MILLIS);
+        long calibratedMillis = timeHash(calibrated);
+        long defaultMillis = timeHash(PasswordHasher.DEFAULT_ITERATIONS);
+
+        Log.i(TAG, "Budget " + LOGIN_BUDGET_MILLIS + "ms: " + calibrated +
+                " iterations took " + calibratedMillis + "ms");
+        Log.i(TAG, "DEFAULT_ITERATIONS " + PasswordHasher.DEFAULT_ITERATIONS +
+                " took " + defaultMillis + "ms");
+        assertTrue(calibrated >= PasswordHasher.MIN_ITERATIONS);
+    }
+
+    // Median of several runs, in milliseconds
+    private static long timeHash(int iterations) {
+        PasswordHasher hasher = new PasswordHasher(iterations);
+        long[] runs = new long[5];
+        for (int i = 0; i < runs.length; i++) {
+            long start = System.nanoTime();
+            hasher.hash("benchmark");
+            runs[i] = (System.nanoTime() - start) / 1000000;
+        }
+        Arrays.sort(runs);
+        return runs[runs.length / 2];
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.nashellisweighttracker;
+
+import static org.junit.Assert.assertEquals;
+
+import android.content.Context;
+import android.database.Cursor;
+import android.util.Log;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.Arrays;
+
+/**
+ * Measures read latency on the weight log while another thread keeps inserting,
+ * once with write-ahead logging and once with the rollback journal for comparison.
+ * Results are written to logcat under the "DbBenchmark" tag.
+ */
+@RunWith(AndroidJUnit4.class)
+public class SQLiteHelperConcurrencyBenchmark {
+
+    private static final String TAG = "DbBenchmark";
+    private static final String TEST_DB = "concurrency-benchmark.db";
+    private static final int USER_ID = 1;
+    private static final int READS = 500;
+
+    private Context context;
+
+    @Before
+    public void setUp() {
+        context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        context.deleteDatabase(TEST_DB);
+    }
+
+    @After
+    public void tearDown() {
+        context.deleteDatabase(TEST_DB);
+    }
+
+    @Test
+    public void readLatencyDuringInserts() throws InterruptedException {
+        long[] wal = measure(true);
+        context.deleteDatabase(TEST_DB);
+        long[] rollback = measure(false);
+
+        Log.i(TAG, "WAL reads: " + describe(wal));
+        Log.i(TAG, "Rollback journal reads: " + describe(rollback));
+        assertEquals(READS, wal.length);
+        assertEquals(READS, rollback.length);
+    }
+
+    // Returns the sorted latency of each read in nanoseconds
+    private long[] measure(boolean writeAheadLogging) throws InterruptedException {
+        SQLiteHelper dbHelper = new SQLiteHelper(context, TEST_DB);
+        dbHelper.setWriteAheadLoggingEnabled(writeAheadLogging);
+        try {
+            for (int i = 0; i < 200; i++) {
+                dbHelper.insertWeight(USER_ID, 180f - i * 0.1f, 19723 + i);
+            }
+
+            Thread writer = new Thread(() -> {
+                int day = 20000;
+                while (!Thread.currentThread().isInterrupted()) {
+                    dbHelper.insertWeight(USER_ID, 170f, day++);
+                }
+            });
+            writer.start();
+
+            long[] latencies = new long[READS];
+            for (int i = 0; i < READS; i++) {
+                long start = System.nanoTime();
+                try (Cursor cursor = dbHelper.getWeightEntriesPage(USER_ID, 0, WeightRepository.PAGE_SIZE)) {
+                    cursor.getCount();
+                }
+                dbHelper.getLatestWeight(USER_ID);
+                latencies[i] = System.nanoTime() - start;
+            }
+
+            writer.interrupt();
+            writer.join();
+            Arrays.sort(latencies);
+            return latencies;
+        } finally {
+            dbHelper.close();
+        }
+    }
+
+    private static String describe(long[] sorted) {
+        return "p50=" + micros(sorted[sorted.length / 2]) +
+                "us p95=" + micros(sorted[sorted.length * 95 / 100]) +
+                "us max=" + micros(sorted[sorted.length - 1]) + "us";
+    }
+
+    private static long micros(long nanos) {
+        return nanos / 1000;
+    }
+}
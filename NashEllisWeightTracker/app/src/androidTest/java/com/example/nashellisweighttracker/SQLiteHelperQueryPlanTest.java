@@ -0,0 +1,79 @@
+package com.example.nashellisweighttracker;
+
+import static org.junit.Assert.assertFalse;
+
+import android.content.Context;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+/**
+ * Fails if any SQLiteHelper query falls back to scanning a whole table
+ * instead of searching an index.
+ */
+@RunWith(AndroidJUnit4.class)
+public class SQLiteHelperQueryPlanTest {
+
+    private SQLiteHelper dbHelper;
+    private SQLiteDatabase db;
+
+    @Before
+    public void setUp() {
+        Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        dbHelper = new SQLiteHelper(context, null);
+        db = dbHelper.getWritableDatabase();
+    }
+
+    @After
+    public void tearDown() {
+        dbHelper.close();
+    }
+
+    @Test
+    public void userQueriesUseIndex() {
+        assertIndexed(SQLiteHelper.QUERY_USER_EXISTS, "user");
+        assertIndexed(SQLiteHelper.QUERY_CREDENTIALS, "user");
+        assertIndexed(SQLiteHelper.QUERY_USER_ID, "user");
+        assertIndexed(SQLiteHelper.QUERY_GOAL_WEIGHT, "1");
+        assertIndexed("DELETE FROM users WHERE id=?", "1");
+    }
+
+    @Test
+    public void weightQueriesUseIndex() {
+        assertIndexed(SQLiteHelper.QUERY_WEIGHTS_BY_USER, "1");
+        assertIndexed(SQLiteHelper.QUERY_WEIGHTS_PAGE, "1", "0", "50");
+        assertIndexed(SQLiteHelper.QUERY_WEIGHTS_BETWEEN, "1", "19700", "19730");
+        assertIndexed(SQLiteHelper.QUERY_STATS, "1", "19700", "19730");
+        assertIndexed(SQLiteHelper.QUERY_LATEST_WEIGHT, "1");
+        assertIndexed(WeightRollups.QUERY_ROLLUPS, "1", "1", "2800", "2900");
+        assertIndexed("DELETE FROM weights WHERE user_id=?", "1");
+        assertIndexed("UPDATE weights SET weight = 0 WHERE id=?", "1");
+    }
+
+    @Test
+    public void outboxQueriesUseIndex() {
+        assertIndexed(SmsOutbox.QUERY_DUE, "1700000000000", "20");
+        assertIndexed(SmsOutbox.QUERY_STALE, "1700000000000");
+        assertIndexed(SmsOutbox.QUERY_DUPLICATE, "1", "GOAL_REACHED:170", "1700000000000");
+        assertIndexed(SmsOutbox.QUERY_OPEN_BATCH, "5550100");
+    }
+
+    // Each plan row must be an index SEARCH, with no full SCAN or temporary sort
+    private void assertIndexed(String sql, String... args) {
+        try (Cursor cursor = db.rawQuery("EXPLAIN QUERY PLAN " + sql, args)) {
+            int detailIndex = cursor.getColumnIndexOrThrow("detail");
+            while (cursor.moveToNext()) {
+                String detail = cursor.getString(detailIndex);
+                assertFalse("Table scan in \"" + sql + "\": " + detail, detail.startsWith("SCAN"));
+                assertFalse("Unindexed sort in \"" + sql + "\": " + detail, detail.contains("TEMP B-TREE"));
+            }
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.nashellisweighttracker;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import android.content.Context;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+/**
+ * Covers the user lookups that run through cached compiled statements,
+ * including the no-row cases and reuse of the same statement.
+ */
+@RunWith(AndroidJUnit4.class)
+public class SQLiteHelperUsersTest {
+
+    private SQLiteHelper dbHelper;
+
+    @Before
+    public void setUp() {
+        Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        dbHelper = new SQLiteHelper(context, null);
+        dbHelper.setPasswordHasher(new PasswordHasher(PasswordHasher.MIN_ITERATIONS));
+    }
+
+    @After
+    public void tearDown() {
+        dbHelper.close();
+    }
+
+    @Test
+    public void registerRejectsDuplicateUsername() {
+        assertTrue(dbHelper.registerUser("nash", "secret", 170f));
+        assertFalse(dbHelper.registerUser("nash", "other", 160f));
+        assertTrue(dbHelper.registerUser("ellis", "secret", 160f));
+    }
+
+    @Test
+    public void lookupsRebindOnEachCall() {
+        dbHelper.registerUser("nash", "secret", 170.5f);
+        dbHelper.registerUser("ellis", "hunter2", 0f);
+
+        assertTrue(dbHelper.validateLogin("nash", "secret"));
+        assertFalse(dbHelper.validateLogin("nash", "hunter2"));
+        assertTrue(dbHelper.validateLogin("ellis", "hunter2"));
+
+        int nashId = dbHelper.getUserId("nash");
+        int ellisId = dbHelper.getUserId("ellis");
+        assertTrue(nashId > 0);
+        assertTrue(ellisId > 0);
+        assertEquals(170.5f, dbHelper.getGoalWeight(nashId), 0f);
+        assertEquals(0f, dbHelper.getGoalWeight(ellisId), 0f);
+    }
+
+    @Test
+    public void authenticateReturnsSession() {
+        dbHelper.registerUser("nash", "secret", 170.5f);
+
+        UserSession session = dbHelper.authenticate("nash", "secret");
+        assertNotNull(session);
+        assertEquals(dbHelper.getUserId("nash"), session.getUserId());
+        assertEquals(170.5f, session.getGoalWeight(), 0f);
+
+        assertNull(dbHelper.authenticate("nash", "wrong"));
+        assertNull(dbHelper.authenticate("nobody", "secret"));
+    }
+
+    @Test
+    public void passwordsAreStoredHashed() {
+        dbHelper.registerUser("nash", "secret", 170f);
+
+        String stored = storedPassword("nash");
+        assertTrue(PasswordHasher.isHashed(stored));
+        assertFalse(stored.contains("secret"));
+    }
+
+    @Test
+    public void plaintextPasswordIsRehashedOnLogin() {
+        SQLiteDatabase db = dbHelper.getWritableDatabase();
+        db.execSQL("INSERT INTO users (username, password, goal_weight) VALUES ('nash', 'secret', 170)");
+
+        assertNull(dbHelper.authenticate("nash", "wrong"));
+        assertEquals("secret", storedPassword("nash"));
+
+        assertNotNull(dbHelper.authenticate("nash", "secret"));
+        assertTrue(PasswordHasher.isHashed(storedPassword("nash")));
+        assertNotNull(dbHelper.authenticate("nash", "secret"));
+    }
+
+    @Test
+    public void missingUserFallsBackToDefaults() {
+        assertFalse(dbHelper.validateLogin("nobody", "secret"));
+        assertEquals(-1, dbHelper.getUserId("nobody"));
+        assertEquals(0f, dbHelper.getGoalWeight(42), 0f);
+    }
+
+    private String storedPassword(String username) {
+        try (Cursor cursor = dbHelper.getReadableDatabase().rawQuery(
+                "SELECT password FROM users WHERE username = ?", new String[]{username})) {
+            assertTrue(cursor.moveToFirst());
+            return cursor.getString(0);
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package com.example.nashellisweighttracker;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import android.content.Context;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Drives SmsOutboxWorker.drain with a fake sender that reports its outcome
+ * straight back to the outbox, the way SmsStatusReceiver would.
+ */
+@RunWith(AndroidJUnit4.class)
+public class SmsOutboxTest {
+
+    private static final long NOW = 1700000000000L;
+
+    private SQLiteHelper dbHelper;
+    private SmsOutbox outbox;
+    private FakeSender sender;
+
+    private class FakeSender implements SmsSender {
+        final List<String> sent = new ArrayList<>();
+        boolean fail;
+        boolean report = true;
+        long now = NOW;
+
+        @Override
+        public void send(NotificationCoalescer.Batch batch) {
+            sent.add(batch.getBody());
+            if (!report) return;
+            for (long id : batch.getIds()) {
+                if (fail) {
+                    outbox.markFailed(id, now);
+                } else {
+                    outbox.markSent(id, now);
+                }
+            }
+        }
+    }
+
+    @Before
+    public void setUp() {
+        Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        dbHelper = new SQLiteHelper(context, null);
+        outbox = new SmsOutbox(dbHelper);
+        sender = new FakeSender();
+    }
+
+    @After
+    public void tearDown() {
+        dbHelper.close();
+    }
+
+    @Test
+    public void pendingMessagesAreSentOncePerPhone() {
+        long first = outbox.enqueue(1, "5550100", "first", NOW);
+        long second = outbox.enqueue(1, "5550100", "second", NOW);
+        long other = outbox.enqueue(1, "5550199", "other", NOW);
+
+        assertFalse(SmsOutboxWorker.drain(outbox, sender, NOW));
+        assertEquals(Arrays.asList("first\nsecond", "other"), sender.sent);
+        assertEquals(SmsOutbox.STATUS_SENT, outbox.getStatus(first));
+        assertEquals(SmsOutbox.STATUS_SENT, outbox.getStatus(second));
+        assertEquals(SmsOutbox.STATUS_SENT, outbox.getStatus(other));
+
+        SmsOutboxWorker.drain(outbox, sender, NOW + 1000);
+        assertEquals(2, sender.sent.size());
+
+        outbox.markDelivered(first, NOW + 2000);
+        assertEquals(SmsOutbox.STATUS_DELIVERED, outbox.getStatus(first));
+    }
+
+    @Test
+    public void failedSendBacksOffExponentiallyThenGivesUp() {
+        long id = outbox.enqueue(1, "5550100", "goal", NOW);
+        sender.fail = true;
+
+        long now = NOW;
+        for (int attempt = 1; attempt < SmsOutbox.MAX_ATTEMPTS; attempt++) {
+            sender.now = now;
+            assertTrue(SmsOutboxWorker.drain(outbox, sender, now));
+            assertEquals(SmsOutbox.STATUS_PENDING, outbox.getStatus(id));
+
+            // Not retried before its backoff has passed
+            long backoff = SmsOutbox.backoffMillis(attempt);
+            SmsOutboxWorker.drain(outbox, sender, now + backoff - 1);
+            assertEquals(attempt, sender.sent.size());
+            now += backoff;
+        }
+
+        sender.now = now;
+        assertFalse(SmsOutboxWorker.drain(outbox, sender, now));
+        assertEquals(SmsOutbox.MAX_ATTEMPTS, sender.sent.size());
+        assertEquals(SmsOutbox.STATUS_FAILED, outbox.getStatus(id));
+    }
+
+    @Test
+    public void missingSentReportIsRetriedAfterTimeout() {
+        long id = outbox.enqueue(1, "5550100", "goal", NOW);
+        sender.report = false;
+
+        assertTrue(SmsOutboxWorker.drain(outbox, sender, NOW));
+        assertEquals(SmsOutbox.STATUS_SENDING, outbox.getStatus(id));
+
+        sender.report = true;
+        long later = NOW + SmsOutbox.SENDING_TIMEOUT_MILLIS;
+        SmsOutboxWorker.drain(outbox, sender, later);
+        assertEquals(SmsOutbox.STATUS_PENDING, outbox.getStatus(id));
+
+        assertFalse(SmsOutboxWorker.drain(outbox, sender, later + SmsOutbox.backoffMillis(1)));
+        assertEquals(2, sender.sent.size());
+        assertEquals(SmsOutbox.STATUS_SENT, outbox.getStatus(id));
+    }
+
+    @Test
+    public void notificationsWithinWindowAreCoalesced() {
+        long window = 60000;
+        long dueAt = outbox.enqueueCoalesced(1, "5550100", "MILESTONE:25", "25%", NOW, window);
+        assertEquals(NOW + window, dueAt);
+
+        // Joins the open batch instead of pushing it back, and repeats are dropped
+        assertEquals(dueAt, outbox.enqueueCoalesced(1, "5550100", "GOAL_REACHED:170", "goal", NOW + 5000, window));
+        assertEquals(-1, outbox.enqueueCoalesced(1, "5550100", "GOAL_REACHED:170", "goal", NOW + 6000, window));
+
+        assertTrue(SmsOutboxWorker.drain(outbox, sender, dueAt - 1));
+        assertTrue(sender.sent.isEmpty());
+        assertFalse(SmsOutboxWorker.drain(outbox, sender, dueAt));
+        assertEquals(Arrays.asList("25%\ngoal"), sender.sent);
+
+        // Still a duplicate within the window after sending, but not after it
+        assertEquals(-1, outbox.enqueueCoalesced(1, "5550100", "GOAL_REACHED:170", "goal", NOW + 7000, window));
+        assertTrue(outbox.enqueueCoalesced(1, "5550100", "GOAL_REACHED:170", "goal", NOW + 5000 + window, window) > 0);
+        assertTrue(outbox.enqueueCoalesced(2, "5550100", "GOAL_REACHED:170", "goal", NOW + 7000, window) > 0);
+    }
+
+    @Test
+    public void senderExceptionCountsAsFailedAttempt() {
+        long id = outbox.enqueue(1, "5550100", "goal", NOW);
+        SmsSender throwing = message -> {
+            throw new SecurityException("SEND_SMS not granted");
+        };
+
+        assertTrue(SmsOutboxWorker.drain(outbox, throwing, NOW));
+        assertEquals(SmsOutbox.STATUS_PENDING, outbox.getStatus(id));
+    }
+
+    @Test
+    public void backoffDoublesUpToCap() {
+        assertEquals(30000, SmsOutbox.backoffMillis(1));
+        assertEquals(60000, SmsOutbox.backoffMillis(2));
+        assertEquals(120000, SmsOutbox.backoffMillis(3));
+        assertEquals(SmsOutbox.MAX_BACKOFF_MILLIS, SmsOutbox.backoffMillis(30));
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.nashellisweighttracker;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import android.content.Context;
+import android.database.DatabaseUtils;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Exports and imports histories longer than one 500-row batch, so the keyset
+ * paging on export and the per-batch commits on import are both exercised.
+ */
+@RunWith(AndroidJUnit4.class)
+public class WeightCsvStreamingTest {
+
+    private static final int SOURCE_USER = 1;
+    private static final int TARGET_USER = 2;
+    private static final int FIRST_DAY = 19723; // 2024-01-01
+
+    private SQLiteHelper dbHelper;
+    private WeightCsv weightCsv;
+
+    @Before
+    public void setUp() {
+        Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        dbHelper = new SQLiteHelper(context, null);
+        weightCsv = new WeightCsv(dbHelper);
+    }
+
+    @After
+    public void tearDown() {
+        dbHelper.close();
+    }
+
+    @Test
+    public void historyRoundTripsAcrossBatches() throws IOException {
+        List<WeightEntry> entries = new ArrayList<>();
+        for (int i = 0; i < 1201; i++) {
+            entries.add(new WeightEntry(200f - i * 0.05f, FIRST_DAY + i));
+        }
+        dbHelper.insertWeights(SOURCE_USER, entries);
+
+        StringWriter exported = new StringWriter();
+        assertEquals(1201, weightCsv.exportTo(SOURCE_USER, exported));
+        String csv = exported.toString();
+        assertTrue(csv.startsWith(WeightCsv.HEADER + "\n200.0,2024-01-01\n"));
+        assertEquals(1202, csv.split("\n").length);
+
+        assertEquals(1201, weightCsv.importFrom(TARGET_USER, new StringReader(csv)));
+        StringWriter reexported = new StringWriter();
+        weightCsv.exportTo(TARGET_USER, reexported);
+        assertEquals(csv, reexported.toString());
+    }
+
+    @Test
+    public void undatedEntriesRoundTrip() throws IOException {
+        dbHelper.insertWeight(SOURCE_USER, 180f, FIRST_DAY);
+        // Rows whose date the migration could not parse are stored as NULL
+        dbHelper.getWritableDatabase().execSQL(
+                "INSERT INTO weights (user_id, weight, date) VALUES (?, 179.5, NULL)",
+                new Object[]{SOURCE_USER});
+
+        StringWriter exported = new StringWriter();
+        weightCsv.exportTo(SOURCE_USER, exported);
+        assertEquals(WeightCsv.HEADER + "\n180.0,2024-01-01\n179.5,\n", exported.toString());
+
+        assertEquals(2, weightCsv.importFrom(TARGET_USER, new StringReader(exported.toString())));
+        StringWriter reexported = new StringWriter();
+        weightCsv.exportTo(TARGET_USER, reexported);
+        assertEquals(exported.toString(), reexported.toString());
+    }
+
+    @Test
+    public void badLineStopsImportAfterCommittedBatches() {
+        StringBuilder csv = new StringBuilder(WeightCsv.HEADER).append('\n');
+        for (int i = 0; i < 600; i++) {
+            csv.append("170.0,").append(EpochDays.formatIso(FIRST_DAY + i)).append('\n');
+        }
+        csv.append("heavy,2025-01-01\n");
+        csv.append("170.0,2025-01-02\n");
+
+        try {
+            weightCsv.importFrom(TARGET_USER, new StringReader(csv.toString()));
+            fail("Import should stop on the bad weight");
+        } catch (WeightCsv.ImportException e) {
+            assertEquals("Invalid weight on line 602", e.getMessage());
+            assertEquals(602, e.getLineNumber());
+            // The first full batch was committed before the bad line was reached, and is reported
+            assertEquals(500, e.getImportedCount());
+        }
+
+        assertEquals(500, DatabaseUtils.queryNumEntries(dbHelper.getReadableDatabase(),
+                "weights", "user_id = ?", new String[]{String.valueOf(TARGET_USER)}));
+    }
+}
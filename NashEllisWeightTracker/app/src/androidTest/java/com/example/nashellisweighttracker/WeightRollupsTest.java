@@ -0,0 +1,89 @@
+package com.example.nashellisweighttracker;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import android.content.Context;
+import android.database.Cursor;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.Arrays;
+
+/**
+ * Checks that the rollup buckets stay in step with the weights table through
+ * inserts, updates and deletes.
+ */
+@RunWith(AndroidJUnit4.class)
+public class WeightRollupsTest {
+
+    private static final int USER_ID = 1;
+    private static final int MONDAY = 19723; // 2024-01-01 was a Monday
+
+    private SQLiteHelper dbHelper;
+
+    @Before
+    public void setUp() {
+        Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        dbHelper = new SQLiteHelper(context, null);
+    }
+
+    @After
+    public void tearDown() {
+        dbHelper.close();
+    }
+
+    @Test
+    public void insertsAreFoldedIntoBuckets() {
+        dbHelper.insertWeight(USER_ID, 170f, MONDAY + 1);
+        dbHelper.insertWeights(USER_ID, Arrays.asList(
+                new WeightEntry(168f, MONDAY + 1),
+                new WeightEntry(166f, MONDAY + 7)));
+
+        int firstWeek = WeightRollups.bucketOf(WeightRollups.PERIOD_WEEK, MONDAY);
+        assertBucket(WeightRollups.PERIOD_DAY, MONDAY + 1, 2, 168f, 170f);
+        assertBucket(WeightRollups.PERIOD_WEEK, firstWeek, 2, 168f, 170f);
+        assertBucket(WeightRollups.PERIOD_WEEK, firstWeek + 1, 1, 166f, 166f);
+        assertBucket(WeightRollups.PERIOD_MONTH, EpochDays.monthOf(MONDAY), 3, 166f, 170f);
+    }
+
+    @Test
+    public void updatesAndDeletesRecomputeBuckets() {
+        dbHelper.insertWeight(USER_ID, 170f, MONDAY);
+        dbHelper.insertWeight(USER_ID, 160f, MONDAY);
+        int lowestId = 2;
+
+        // Moving the minimum to another month must drop it from the old buckets
+        assertTrue(dbHelper.updateWeight(lowestId, 160f, MONDAY + 40));
+        assertBucket(WeightRollups.PERIOD_DAY, MONDAY, 1, 170f, 170f);
+        assertBucket(WeightRollups.PERIOD_MONTH, EpochDays.monthOf(MONDAY + 40), 1, 160f, 160f);
+
+        assertTrue(dbHelper.deleteWeight(lowestId));
+        assertNoBucket(WeightRollups.PERIOD_MONTH, EpochDays.monthOf(MONDAY + 40));
+
+        dbHelper.deleteAllWeights(USER_ID);
+        assertNoBucket(WeightRollups.PERIOD_DAY, MONDAY);
+    }
+
+    private void assertBucket(int period, int bucket, int count, float min, float max) {
+        try (Cursor cursor = dbHelper.getRollups(USER_ID, period, bucket, bucket)) {
+            assertTrue("Missing bucket " + bucket, cursor.moveToFirst());
+            assertEquals(count, cursor.getInt(cursor.getColumnIndexOrThrow("count")));
+            assertEquals(min, cursor.getFloat(cursor.getColumnIndexOrThrow("min")), 0.001f);
+            assertEquals(max, cursor.getFloat(cursor.getColumnIndexOrThrow("max")), 0.001f);
+        }
+    }
+
+    private void assertNoBucket(int period, int bucket) {
+        try (Cursor cursor = dbHelper.getRollups(USER_ID, period, bucket, bucket)) {
+            assertFalse("Stale bucket " + bucket, cursor.moveToFirst());
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.nashellisweighttracker;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.os.Process;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The app's shared thread pools, so background work has a fixed number of threads
+ * instead of one executor per class.
+ *
+ * diskIO is a single thread that all SQLiteHelper access goes through, which keeps
+ * writes in submission order. background is a small pool for CPU work such as list
+ * diffing and password hashing, and mainThread hands results back to the UI.
+ */
+public class AppExecutors {
+
+    private static final int BACKGROUND_THREADS = 2;
+
+    private static AppExecutors instance;
+
+    private final Executor diskIO;
+    private final Executor background;
+    private final Executor mainThread;
+
+    public static synchronized AppExecutors getInstance() {
+        if (instance == null) {
+            Handler mainHandler = new Handler(Looper.getMainLooper());
+            instance = new AppExecutors(
+                    Executors.newSingleThreadExecutor(threadFactory("disk-io")),
+                    Executors.newFixedThreadPool(BACKGROUND_THREADS, threadFactory("background")),
+                    mainHandler::post);
+        }
+        return instance;
+    }
+
+    // Tests pass direct or recording executors
+    AppExecutors(Executor diskIO, Executor background, Executor mainThread) {
+        this.diskIO = diskIO;
+        this.background = background;
+        this.mainThread = mainThread;
+    }
+
+    public Executor diskIO() {
+        return diskIO;
+    }
+
+    public Executor background() {
+        return background;
+    }
+
+    public Executor mainThread() {
+        return mainThread;
+    }
+
+    // Named, background-priority threads so they show up clearly in traces
+    private static ThreadFactory threadFactory(String name) {
+        AtomicInteger count = new AtomicInteger();
+        return runnable -> new Thread(() -> {
+            Process.setThreadPriority(Process.THREAD_PRIORITY_BACKGROUND);
+            runnable.run();
+        }, name + "-" + count.incrementAndGet());
+    }
+}
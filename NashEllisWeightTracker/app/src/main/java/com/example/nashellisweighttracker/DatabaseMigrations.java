@@ -0,0 +1,130 @@
+package com.example.nashellisweighttracker;
+
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteStatement;
+
+/**
+ * Ordered, non-destructive schema migrations for WeightTracker.db.
+ *
+ * Each step upgrades the schema by exactly one version and must keep existing rows.
+ * Steps use literal SQL so they keep describing the schema as it was at that version,
+ * even after SQLiteHelper's constants change. SQLiteOpenHelper runs onUpgrade inside
+ * a single transaction, so a failed step rolls back the whole upgrade.
+ */
+final class DatabaseMigrations {
+
+    interface Migration {
+        void migrate(SQLiteDatabase db);
+    }
+
+    // MIGRATIONS[i] upgrades a database from version i + 1 to version i + 2
+    private static final Migration[] MIGRATIONS = {
+            // 1 -> 2: goal weight stored on the users table
+            db -> {
+                if (!hasColumn(db, "users", "goal_weight")) {
+                    db.execSQL("ALTER TABLE users ADD COLUMN goal_weight REAL DEFAULT 0");
+                }
+            },
+            // 2 -> 3: index weights by user
+            db -> db.execSQL("CREATE INDEX IF NOT EXISTS idx_weights_user_id ON weights (user_id, id)"),
+            // 3 -> 4: dates stored as epoch days instead of "MMM dd, yyyy" text
+            DatabaseMigrations::convertDatesToEpochDays,
+            // 4 -> 5: day, week and month rollups, backfilled from existing entries
+            DatabaseMigrations::createWeightRollups,
+            // 5 -> 6: durable outbox for SMS notifications
+            db -> {
+                db.execSQL("CREATE TABLE IF NOT EXISTS sms_outbox (" +
+                        "id INTEGER PRIMARY KEY AUTOINCREMENT, user_id INTEGER, " +
+                        "phone TEXT NOT NULL, body TEXT NOT NULL, status INTEGER NOT NULL DEFAULT 0, " +
+                        "attempts INTEGER NOT NULL DEFAULT 0, next_attempt_at INTEGER NOT NULL DEFAULT 0, " +
+                        "updated_at INTEGER NOT NULL DEFAULT 0)");
+                db.execSQL("CREATE INDEX IF NOT EXISTS idx_sms_outbox_due ON sms_outbox (status, next_attempt_at)");
+            },
+            // 6 -> 7: per-user state for goal rules
+            db -> db.execSQL("CREATE TABLE IF NOT EXISTS goal_progress (user_id INTEGER PRIMARY KEY, " +
+                    "goal_weight REAL NOT NULL, start_weight REAL NOT NULL, last_day INTEGER NOT NULL, " +
+                    "streak_days INTEGER NOT NULL, fired INTEGER NOT NULL)"),
+            // 7 -> 8: dedupe keys and creation times for coalesced SMS notifications
+            db -> {
+                db.execSQL("ALTER TABLE sms_outbox ADD COLUMN dedupe_key TEXT");
+                db.execSQL("ALTER TABLE sms_outbox ADD COLUMN created_at INTEGER NOT NULL DEFAULT 0");
+                db.execSQL("CREATE INDEX IF NOT EXISTS idx_sms_outbox_dedupe ON sms_outbox (user_id, dedupe_key)");
+            },
+    };
+
+    static final int LATEST_VERSION = MIGRATIONS.length + 1;
+
+    private DatabaseMigrations() {
+    }
+
+    static void migrate(SQLiteDatabase db, int oldVersion, int newVersion) {
+        if (oldVersion < 1 || newVersion > LATEST_VERSION) {
+            throw new IllegalArgumentException(
+                    "No migration path from version " + oldVersion + " to " + newVersion);
+        }
+        for (int version = oldVersion; version < newVersion; version++) {
+            MIGRATIONS[version - 1].migrate(db);
+        }
+    }
+
+    // SQLite cannot change a column's type in place, so the table is rebuilt with ids preserved.
+    // Dates that no longer parse are kept as NULL rather than dropping the reading.
+    private static void convertDatesToEpochDays(SQLiteDatabase db) {
+        db.execSQL("CREATE TABLE weights_new (id INTEGER PRIMARY KEY AUTOINCREMENT, " +
+                "user_id INTEGER, weight REAL, date INTEGER, " +
+                "FOREIGN KEY(user_id) REFERENCES users(id))");
+
+        try (Cursor cursor = db.rawQuery("SELECT id, user_id, weight, date FROM weights", null);
+             SQLiteStatement insert = db.compileStatement(
+                     "INSERT INTO weights_new (id, user_id, weight, date) VALUES (?, ?, ?, ?)")) {
+            while (cursor.moveToNext()) {
+                insert.clearBindings();
+                insert.bindLong(1, cursor.getLong(0));
+                if (!cursor.isNull(1)) insert.bindLong(2, cursor.getLong(1));
+                if (!cursor.isNull(2)) insert.bindDouble(3, cursor.getDouble(2));
+                Integer epochDay = EpochDays.parseLegacy(cursor.getString(3));
+                if (epochDay != null) insert.bindLong(4, epochDay);
+                insert.executeInsert();
+            }
+        }
+
+        db.execSQL("DROP TABLE weights");
+        db.execSQL("ALTER TABLE weights_new RENAME TO weights");
+        db.execSQL("CREATE INDEX IF NOT EXISTS idx_weights_user_id ON weights (user_id, id)");
+        db.execSQL("CREATE INDEX IF NOT EXISTS idx_weights_user_date ON weights (user_id, date)");
+    }
+
+    // Buckets match WeightRollups.bucketOf: epoch day, Monday-based week, months since 1970.
+    // SQLite's / truncates toward zero, so weeks before 1970 round down explicitly like Math.floorDiv.
+    private static void createWeightRollups(SQLiteDatabase db) {
+        db.execSQL("CREATE TABLE IF NOT EXISTS weight_rollups (" +
+                "user_id INTEGER NOT NULL, period INTEGER NOT NULL, bucket INTEGER NOT NULL, " +
+                "count INTEGER NOT NULL, sum REAL NOT NULL, min REAL NOT NULL, max REAL NOT NULL, " +
+                "PRIMARY KEY (user_id, period, bucket)) WITHOUT ROWID");
+
+        String[] bucketExpressions = {
+                "date",
+                "CASE WHEN date + 3 < 0 THEN (date - 3) / 7 ELSE (date + 3) / 7 END",
+                "(strftime('%Y', date * 86400, 'unixepoch') - 1970) * 12 " +
+                        "+ strftime('%m', date * 86400, 'unixepoch') - 1"
+        };
+        for (int period = 0; period < bucketExpressions.length; period++) {
+            db.execSQL("INSERT INTO weight_rollups (user_id, period, bucket, count, sum, min, max) " +
+                    "SELECT user_id, " + period + ", " + bucketExpressions[period] + " AS bucket, " +
+                    "COUNT(weight), SUM(weight), MIN(weight), MAX(weight) FROM weights " +
+                    "WHERE user_id IS NOT NULL AND date IS NOT NULL AND weight IS NOT NULL " +
+                    "GROUP BY user_id, bucket");
+        }
+    }
+
+    private static boolean hasColumn(SQLiteDatabase db, String table, String column) {
+        try (Cursor cursor = db.rawQuery("PRAGMA table_info(" + table + ")", null)) {
+            int nameIndex = cursor.getColumnIndexOrThrow("name");
+            while (cursor.moveToNext()) {
+                if (column.equals(cursor.getString(nameIndex))) return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.nashellisweighttracker;
+
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.Calendar;
+import java.util.Locale;
+import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Helpers for dates stored as epoch days (days since 1970-01-01).
+ *
+ * The database only ever holds the integer, so ordering and range queries are plain
+ * integer comparisons; text is produced when a date is displayed or exported.
+ */
+final class EpochDays {
+
+    static final String DISPLAY_PATTERN = "MMM dd, yyyy";
+    static final String ISO_PATTERN = "yyyy-MM-dd";
+
+    private static final long MILLIS_PER_DAY = TimeUnit.DAYS.toMillis(1);
+    private static final TimeZone UTC = TimeZone.getTimeZone("UTC");
+
+    // Display formatting happens on every bind, so keep one formatter per thread
+    private static final ThreadLocal<SimpleDateFormat> DISPLAY_FORMAT = new ThreadLocal<SimpleDateFormat>() {
+        @Override
+        protected SimpleDateFormat initialValue() {
+            return newFormat(DISPLAY_PATTERN, Locale.getDefault());
+        }
+    };
+
+    private EpochDays() {
+    }
+
+    // The current day in the device's time zone
+    static int today() {
+        return fromMillis(System.currentTimeMillis(), TimeZone.getDefault());
+    }
+
+    static int fromMillis(long millis, TimeZone zone) {
+        return (int) Math.floorDiv(millis + zone.getOffset(millis), MILLIS_PER_DAY);
+    }
+
+    static long toUtcMillis(int epochDay) {
+        return epochDay * MILLIS_PER_DAY;
+    }
+
+    // Months since January 1970, e.g. 0 for any day in January 1970
+    static int monthOf(int epochDay) {
+        Calendar calendar = Calendar.getInstance(UTC);
+        calendar.setTimeInMillis(toUtcMillis(epochDay));
+        return (calendar.get(Calendar.YEAR) - 1970) * 12 + calendar.get(Calendar.MONTH);
+    }
+
+    static int firstDayOfMonth(int month) {
+        Calendar calendar = Calendar.getInstance(UTC);
+        calendar.clear();
+        calendar.set(1970 + Math.floorDiv(month, 12), Math.floorMod(month, 12), 1);
+        return (int) Math.floorDiv(calendar.getTimeInMillis(), MILLIS_PER_DAY);
+    }
+
+    static String format(int epochDay) {
+        return DISPLAY_FORMAT.get().format(toUtcMillis(epochDay));
+    }
+
+    static String formatIso(int epochDay) {
+        return newFormat(ISO_PATTERN, Locale.US).format(toUtcMillis(epochDay));
+    }
+
+    static int parseIso(String text) throws ParseException {
+        return parse(text, ISO_PATTERN, Locale.US);
+    }
+
+    // Parses dates written before epoch days, e.g. "Jan 05, 2024". Returns null if unparseable.
+    static Integer parseLegacy(String text) {
+        if (text == null) return null;
+        try {
+            return parse(text, DISPLAY_PATTERN, Locale.getDefault());
+        } catch (ParseException e) {
+            // Older rows may have been written under a different locale
+        }
+        try {
+            return parse(text, DISPLAY_PATTERN, Locale.US);
+        } catch (ParseException e) {
+            return null;
+        }
+    }
+
+    private static int parse(String text, String pattern, Locale locale) throws ParseException {
+        SimpleDateFormat format = newFormat(pattern, locale);
+        format.setLenient(false);
+        return (int) Math.floorDiv(format.parse(text.trim()).getTime(), MILLIS_PER_DAY);
+    }
+
+    private static SimpleDateFormat newFormat(String pattern, Locale locale) {
+        SimpleDateFormat format = new SimpleDateFormat(pattern, locale);
+        format.setTimeZone(UTC);
+        return format;
+    }
+}
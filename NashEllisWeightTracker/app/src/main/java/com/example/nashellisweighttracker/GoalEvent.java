@@ -0,0 +1,48 @@
+package com.example.nashellisweighttracker;
+
+/**
+ * Something worth telling the user about, raised by GoalRuleEngine.
+ */
+public class GoalEvent {
+
+    public enum Type { GOAL_REACHED, MILESTONE, STREAK }
+
+    private final Type type;
+    private final int value;
+
+    public GoalEvent(Type type, int value) {
+        this.type = type;
+        this.value = value;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    // Goal weight in lbs, percent of the way to the goal, or streak length in days
+    public int getValue() {
+        return value;
+    }
+
+    // Identifies the notification for deduplication, e.g. "MILESTONE:50"
+    public String getKey() {
+        return type + ":" + value;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (!(o instanceof GoalEvent)) return false;
+        GoalEvent other = (GoalEvent) o;
+        return type == other.type && value == other.value;
+    }
+
+    @Override
+    public int hashCode() {
+        return type.hashCode() * 31 + value;
+    }
+
+    @Override
+    public String toString() {
+        return type + "(" + value + ")";
+    }
+}
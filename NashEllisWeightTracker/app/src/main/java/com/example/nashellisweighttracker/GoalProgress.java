@@ -0,0 +1,47 @@
+package com.example.nashellisweighttracker;
+
+/**
+ * Per-user state GoalRuleEngine needs to evaluate one new entry in constant time.
+ * Stored as one row of the goal_progress table.
+ */
+public class GoalProgress {
+
+    float goalWeight;
+    float startWeight;
+    int lastEpochDay;
+    int streakDays;
+    int fired; // GoalRuleEngine.FIRED_* bits
+
+    public GoalProgress(float goalWeight, float startWeight, int lastEpochDay, int streakDays, int fired) {
+        this.goalWeight = goalWeight;
+        this.startWeight = startWeight;
+        this.lastEpochDay = lastEpochDay;
+        this.streakDays = streakDays;
+        this.fired = fired;
+    }
+
+    // Fresh progress towards a goal, measured from startWeight
+    public static GoalProgress start(float goalWeight, float startWeight) {
+        return new GoalProgress(goalWeight, startWeight, WeightEntryList.UNKNOWN_DAY, 0, 0);
+    }
+
+    public float getGoalWeight() {
+        return goalWeight;
+    }
+
+    public float getStartWeight() {
+        return startWeight;
+    }
+
+    public int getLastEpochDay() {
+        return lastEpochDay;
+    }
+
+    public int getStreakDays() {
+        return streakDays;
+    }
+
+    public int getFired() {
+        return fired;
+    }
+}
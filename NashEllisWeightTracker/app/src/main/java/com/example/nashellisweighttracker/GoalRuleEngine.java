@@ -0,0 +1,107 @@
+package com.example.nashellisweighttracker;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Evaluates goal rules against each newly logged weight:
+ * - crossing the goal weight, in whichever direction the goal lies from the start weight
+ * - 25, 50 and 75 percent of the way from the start weight to the goal
+ * - 7, 30 and 100 day logging streaks
+ *
+ * Each evaluation only reads and updates the user's GoalProgress, so it costs the
+ * same however long the history is. Every rule fires at most once: goal rules once
+ * per goal, streak rules once per user.
+ */
+public final class GoalRuleEngine {
+
+    static final int[] MILESTONE_PERCENTS = {25, 50, 75};
+    static final int[] STREAK_DAYS = {7, 30, 100};
+
+    // Bits in GoalProgress.fired
+    static final int FIRED_GOAL = 1;
+    private static final int FIRED_MILESTONE_SHIFT = 1;
+    private static final int FIRED_STREAK_SHIFT = FIRED_MILESTONE_SHIFT + MILESTONE_PERCENTS.length;
+    private static final int GOAL_BITS = (1 << FIRED_STREAK_SHIFT) - 1;
+
+    private GoalRuleEngine() {
+    }
+
+    /**
+     * Returns progress towards goalWeight, starting over if the goal has changed
+     * since the stored progress was made. Streaks carry over.
+     */
+    public static GoalProgress progressFor(GoalProgress stored, float goalWeight, float startWeight) {
+        if (stored == null) return GoalProgress.start(goalWeight, startWeight);
+        if (stored.goalWeight != goalWeight) {
+            stored.goalWeight = goalWeight;
+            stored.startWeight = startWeight;
+            stored.fired &= ~GOAL_BITS;
+        }
+        return stored;
+    }
+
+    // Updates progress with a weight logged for epochDay and returns the rules that fired
+    public static List<GoalEvent> evaluate(GoalProgress progress, float weight, int epochDay) {
+        List<GoalEvent> events = new ArrayList<>();
+        evaluateGoal(progress, weight, events);
+        evaluateStreak(progress, epochDay, events);
+        return events;
+    }
+
+    private static void evaluateGoal(GoalProgress progress, float weight, List<GoalEvent> events) {
+        if (progress.goalWeight <= 0) return; // No goal set
+        boolean losing = progress.goalWeight <= progress.startWeight;
+
+        // Crossed or landed on the goal, rather than hitting it exactly
+        boolean reached = losing ? weight <= progress.goalWeight : weight >= progress.goalWeight;
+        if (reached) {
+            if (fire(progress, FIRED_GOAL)) {
+                events.add(new GoalEvent(GoalEvent.Type.GOAL_REACHED, Math.round(progress.goalWeight)));
+            }
+            // Milestones passed on the way are implied by reaching the goal
+            for (int i = 0; i < MILESTONE_PERCENTS.length; i++) {
+                fire(progress, 1 << (FIRED_MILESTONE_SHIFT + i));
+            }
+            return;
+        }
+
+        float total = Math.abs(progress.startWeight - progress.goalWeight);
+        if (total == 0) return;
+        float done = losing ? progress.startWeight - weight : weight - progress.startWeight;
+        float percent = done / total * 100;
+
+        // Only the highest newly passed milestone is reported
+        GoalEvent milestone = null;
+        for (int i = 0; i < MILESTONE_PERCENTS.length; i++) {
+            if (percent >= MILESTONE_PERCENTS[i] && fire(progress, 1 << (FIRED_MILESTONE_SHIFT + i))) {
+                milestone = new GoalEvent(GoalEvent.Type.MILESTONE, MILESTONE_PERCENTS[i]);
+            }
+        }
+        if (milestone != null) events.add(milestone);
+    }
+
+    private static void evaluateStreak(GoalProgress progress, int epochDay, List<GoalEvent> events) {
+        if (epochDay == WeightEntryList.UNKNOWN_DAY) return;
+        // Same-day and back-dated entries neither extend nor break the streak
+        if (progress.lastEpochDay != WeightEntryList.UNKNOWN_DAY && epochDay <= progress.lastEpochDay) return;
+
+        boolean consecutive = progress.lastEpochDay != WeightEntryList.UNKNOWN_DAY
+                && epochDay == progress.lastEpochDay + 1;
+        progress.streakDays = consecutive ? progress.streakDays + 1 : 1;
+        progress.lastEpochDay = epochDay;
+
+        for (int i = 0; i < STREAK_DAYS.length; i++) {
+            if (progress.streakDays == STREAK_DAYS[i] && fire(progress, 1 << (FIRED_STREAK_SHIFT + i))) {
+                events.add(new GoalEvent(GoalEvent.Type.STREAK, STREAK_DAYS[i]));
+            }
+        }
+    }
+
+    // Sets the bit and returns true if it was not already set
+    private static boolean fire(GoalProgress progress, int bit) {
+        if ((progress.fired & bit) != 0) return false;
+        progress.fired |= bit;
+        return true;
+    }
+}
@@ -4,10 +4,13 @@ import android.content.Intent;
 import android.os.Bundle;
 import android.text.TextUtils;
 import android.widget.Button;
+import android.view.View;
 import android.widget.EditText;
+import android.widget.ProgressBar;
 import android.widget.Toast;
 
 import androidx.appcompat.app.AppCompatActivity;
+import androidx.lifecycle.ViewModelProvider;
 
 public class LoginActivity extends AppCompatActivity {
 
@@ -15,8 +18,9 @@ public class LoginActivity extends AppCompatActivity {
     private EditText passwordInput;
     private Button loginButton;
     private Button createAccountButton;
+    private ProgressBar progressBar;
 
-    private SQLiteHelper dbHelper;
+    private LoginViewModel viewModel;
 
     private static final int MIN_LENGTH = 4;
     private static final int MAX_LENGTH = 20;
@@ -30,8 +34,10 @@ public class LoginActivity extends AppCompatActivity {
         passwordInput = findViewById(R.id.etPassword);
         loginButton = findViewById(R.id.btnLogin);
         createAccountButton = findViewById(R.id.btnCreateAccount);
+        progressBar = findViewById(R.id.pbLogin);
 
-        dbHelper = new SQLiteHelper(this);
+        viewModel = new ViewModelProvider(this).get(LoginViewModel.class);
+        viewModel.getState().observe(this, this::onLoginState);
 
         // Login Button
         loginButton.setOnClickListener(v -> {
@@ -40,20 +46,7 @@ public class LoginActivity extends AppCompatActivity {
 
             if (!isValidInput(username, password)) return;
 
-            boolean validLogin = dbHelper.validateLogin(username, password);
-            if (validLogin) {
-                Toast.makeText(this, "Login successful!", Toast.LENGTH_SHORT).show();
-
-                int userId = dbHelper.getUserId(username);
-
-                Intent intent = new Intent(LoginActivity.this, WeightLogActivity.class);
-                intent.putExtra("USER_ID", userId);
-                intent.putExtra("username", username);
-                startActivity(intent);
-                finish();
-            } else {
-                Toast.makeText(this, "Invalid username or password", Toast.LENGTH_SHORT).show();
-            }
+            viewModel.login(username, password);
         });
 
         // Create Account Button
@@ -63,15 +56,34 @@ public class LoginActivity extends AppCompatActivity {
 
             if (!isValidInput(username, password)) return;
 
-            boolean success = dbHelper.registerUser(username, password, 0.0f);
-            if (success) {
-                Toast.makeText(this, "Account created for " + username, Toast.LENGTH_SHORT).show();
-            } else {
-                Toast.makeText(this, "Username already exists!", Toast.LENGTH_SHORT).show();
-            }
+            viewModel.register(username, password);
         });
     }
 
+    private void onLoginState(LoginViewModel.LoginState state) {
+        boolean working = state.status == LoginViewModel.Status.WORKING;
+        progressBar.setVisibility(working ? View.VISIBLE : View.GONE);
+        loginButton.setEnabled(!working);
+        createAccountButton.setEnabled(!working);
+
+        switch (state.status) {
+            case LOGGED_IN:
+                Toast.makeText(this, state.message, Toast.LENGTH_SHORT).show();
+                Intent intent = new Intent(LoginActivity.this, WeightLogActivity.class);
+                state.session.putInto(intent);
+                startActivity(intent);
+                finish();
+                break;
+            case REGISTERED:
+            case FAILED:
+                Toast.makeText(this, state.message, Toast.LENGTH_SHORT).show();
+                viewModel.acknowledge();
+                break;
+            default:
+                break;
+        }
+    }
+
     private boolean isValidInput(String username, String password) {
         if (TextUtils.isEmpty(username)) {
             usernameInput.setError("Enter username");
@@ -0,0 +1,82 @@
+package com.example.nashellisweighttracker;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * Per-username token bucket for login attempts. Each username may make up to
+ * capacity attempts in a burst, then one more every refillMillis. Rejected
+ * attempts never reach the database or the password hasher.
+ *
+ * At most maxUsernames buckets are kept. Only buckets that have refilled to
+ * capacity are dropped to make room, since those behave exactly like a fresh
+ * one; while every tracked username is still throttled, attempts for new
+ * usernames are rejected instead, so cycling through names cannot clear
+ * another user's limit.
+ */
+public class LoginRateLimiter {
+
+    private static class Bucket {
+        int tokens;
+        long lastRefill;
+
+        Bucket(int tokens, long lastRefill) {
+            this.tokens = tokens;
+            this.lastRefill = lastRefill;
+        }
+    }
+
+    private final int capacity;
+    private final long refillMillis;
+    private final LongSupplier clock;
+    private final int maxUsernames;
+    private final Map<String, Bucket> buckets = new HashMap<>();
+
+    public LoginRateLimiter(int capacity, long refillMillis, int maxUsernames, LongSupplier clock) {
+        this.capacity = capacity;
+        this.refillMillis = refillMillis;
+        this.clock = clock;
+        this.maxUsernames = maxUsernames;
+    }
+
+    // Returns 0 if the attempt may go ahead, otherwise the milliseconds until it may
+    public synchronized long tryAcquire(String username) {
+        long now = clock.getAsLong();
+        Bucket bucket = buckets.get(username);
+        if (bucket == null) {
+            if (buckets.size() >= maxUsernames) {
+                removeRefilled(now);
+                if (buckets.size() >= maxUsernames) return refillMillis;
+            }
+            bucket = new Bucket(capacity, now);
+            buckets.put(username, bucket);
+        }
+
+        long refills = (now - bucket.lastRefill) / refillMillis;
+        if (refills > 0) {
+            bucket.tokens = (int) Math.min(capacity, bucket.tokens + refills);
+            bucket.lastRefill = bucket.tokens == capacity ? now : bucket.lastRefill + refills * refillMillis;
+        }
+
+        if (bucket.tokens > 0) {
+            bucket.tokens--;
+            return 0;
+        }
+        return refillMillis - (now - bucket.lastRefill);
+    }
+
+    private void removeRefilled(long now) {
+        Iterator<Bucket> it = buckets.values().iterator();
+        while (it.hasNext()) {
+            Bucket bucket = it.next();
+            if (bucket.tokens + (now - bucket.lastRefill) / refillMillis >= capacity) it.remove();
+        }
+    }
+
+    // A successful login clears the username's failed attempts
+    public synchronized void reset(String username) {
+        buckets.remove(username);
+    }
+}
@@ -0,0 +1,143 @@
+package com.example.nashellisweighttracker;
+
+import android.app.Application;
+import android.database.sqlite.SQLiteException;
+import android.os.SystemClock;
+
+import androidx.annotation.NonNull;
+import androidx.lifecycle.AndroidViewModel;
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MutableLiveData;
+
+/**
+ * Runs login and registration off the main thread and exposes their progress to
+ * LoginActivity. Password hashing runs on the background pool and only the queries
+ * on the database thread, so a slow hash does not hold up other database work.
+ */
+public class LoginViewModel extends AndroidViewModel {
+
+    public enum Status { IDLE, WORKING, LOGGED_IN, REGISTERED, FAILED }
+
+    public static class LoginState {
+        final Status status;
+        final UserSession session; // Set when LOGGED_IN
+        final String message;
+
+        LoginState(Status status, UserSession session, String message) {
+            this.status = status;
+            this.session = session;
+            this.message = message;
+        }
+    }
+
+    private static final LoginState IDLE = new LoginState(Status.IDLE, null, null);
+
+    // Five quick attempts per username, then one every 30 seconds; shared by every login screen
+    private static final LoginRateLimiter RATE_LIMITER =
+            new LoginRateLimiter(5, 30000, 256, SystemClock::elapsedRealtime);
+
+    private final SQLiteHelper dbHelper;
+    private final TaskScope scope = new TaskScope(AppExecutors.getInstance());
+    private final MutableLiveData<LoginState> state = new MutableLiveData<>(IDLE);
+
+    public LoginViewModel(@NonNull Application application) {
+        super(application);
+        dbHelper = SQLiteHelper.getInstance(application);
+    }
+
+    public LiveData<LoginState> getState() {
+        return state;
+    }
+
+    public void login(String username, String password) {
+        if (!start()) return;
+
+        // Rejected in memory, before any database or hashing work
+        long waitMillis = RATE_LIMITER.tryAcquire(username);
+        if (waitMillis > 0) {
+            long seconds = (waitMillis + 999) / 1000;
+            state.setValue(new LoginState(Status.FAILED, null,
+                    "Too many attempts, try again in " + seconds + " seconds"));
+            return;
+        }
+
+        scope.execute(() -> dbHelper.getCredentials(username),
+                credentials -> checkPassword(username, password, credentials), this::onError);
+    }
+
+    public void register(String username, String password) {
+        if (!start()) return;
+        scope.execute(() -> dbHelper.userExists(username), exists -> {
+            if (exists) {
+                onRegistered(username, false);
+            } else {
+                scope.compute(() -> dbHelper.hashPassword(password),
+                        passwordHash -> insertUser(username, passwordHash), this::onError);
+            }
+        }, this::onError);
+    }
+
+    // Called once a result has been shown, so it is not shown again after rotation
+    public void acknowledge() {
+        state.setValue(IDLE);
+    }
+
+    // Unknown users (null credentials) are hashed against a decoy, so they take as long to reject
+    private void checkPassword(String username, String password, SQLiteHelper.Credentials credentials) {
+        scope.compute(() -> dbHelper.checkPassword(credentials, password), valid -> {
+            if (valid) {
+                RATE_LIMITER.reset(username);
+                if (dbHelper.needsRehash(credentials)) upgradeHash(credentials, password);
+                state.setValue(new LoginState(Status.LOGGED_IN, credentials.toSession(), "Login successful!"));
+            } else {
+                state.setValue(new LoginState(Status.FAILED, null, "Invalid username or password"));
+            }
+        }, this::onError);
+    }
+
+    // Outside the scope, so leaving the login screen does not cancel it
+    private void upgradeHash(SQLiteHelper.Credentials credentials, String password) {
+        AppExecutors executors = AppExecutors.getInstance();
+        executors.background().execute(() -> {
+            String passwordHash = dbHelper.hashPassword(password);
+            executors.diskIO().execute(() -> {
+                try {
+                    dbHelper.updatePasswordHash(credentials.userId, passwordHash);
+                } catch (SQLiteException e) {
+                    // The old hash still works and the next login tries again
+                }
+            });
+        });
+    }
+
+    private void insertUser(String username, String passwordHash) {
+        scope.execute(() -> dbHelper.insertUser(username, passwordHash, 0.0f),
+                created -> onRegistered(username, created), this::onError);
+    }
+
+    private void onRegistered(String username, boolean created) {
+        if (created) {
+            state.setValue(new LoginState(Status.REGISTERED, null, "Account created for " + username));
+        } else {
+            state.setValue(new LoginState(Status.FAILED, null, "Username already exists!"));
+        }
+    }
+
+    // A database error ends the request instead of leaving the screen stuck in WORKING
+    private void onError(Throwable error) {
+        state.setValue(new LoginState(Status.FAILED, null, "Something went wrong, please try again"));
+    }
+
+    // Ignores taps while a request is already running
+    private boolean start() {
+        LoginState current = state.getValue();
+        if (current != null && current.status == Status.WORKING) return false;
+        state.setValue(new LoginState(Status.WORKING, null, null));
+        return true;
+    }
+
+    @Override
+    protected void onCleared() {
+        scope.cancel();
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.nashellisweighttracker;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Turns the outbox messages claimed in one worker run into as few SMS sends as
+ * possible: one per phone number, with repeated (user, dedupe key) notifications
+ * sent once. Every claimed id stays in a batch, so duplicates are settled with
+ * the send that covers them.
+ */
+final class NotificationCoalescer {
+
+    static class Batch {
+        private final String phone;
+        private final List<Long> ids = new ArrayList<>();
+        private final StringBuilder body = new StringBuilder();
+
+        Batch(String phone) {
+            this.phone = phone;
+        }
+
+        String getPhone() {
+            return phone;
+        }
+
+        long[] getIds() {
+            long[] result = new long[ids.size()];
+            for (int i = 0; i < result.length; i++) result[i] = ids.get(i);
+            return result;
+        }
+
+        String getBody() {
+            return body.toString();
+        }
+    }
+
+    private NotificationCoalescer() {
+    }
+
+    // Batches keep the order of the first message for each phone, bodies keep message order
+    static List<Batch> coalesce(List<SmsOutbox.Message> messages) {
+        Map<String, Batch> byPhone = new LinkedHashMap<>();
+        Set<String> seen = new HashSet<>();
+        for (SmsOutbox.Message message : messages) {
+            Batch batch = byPhone.get(message.getPhone());
+            if (batch == null) {
+                batch = new Batch(message.getPhone());
+                byPhone.put(message.getPhone(), batch);
+            }
+            batch.ids.add(message.getId());
+
+            String key = message.getDedupeKey();
+            boolean duplicate = key != null && !seen.add(message.getUserId() + "/" + key);
+            if (!duplicate) {
+                if (batch.body.length() > 0) batch.body.append('\n');
+                batch.body.append(message.getBody());
+            }
+        }
+        return new ArrayList<>(byPhone.values());
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.nashellisweighttracker;
+
+import android.content.Context;
+
+/**
+ * Queues SMS notifications so that bursts turn into a single send.
+ *
+ * A notification is dropped if the same (user, key) is still unsent or was queued
+ * within the coalescing window. Otherwise it joins the batch already waiting for
+ * its phone number, or opens a new one that goes out when the window closes.
+ * Call from a background thread.
+ */
+public class NotificationDispatcher {
+
+    static final long DEFAULT_WINDOW_MILLIS = 2 * 60 * 1000L;
+
+    private final Context appContext;
+    private final SmsOutbox outbox;
+    private final long windowMillis;
+
+    public NotificationDispatcher(Context context, SQLiteHelper dbHelper, long windowMillis) {
+        this.appContext = context.getApplicationContext();
+        this.outbox = new SmsOutbox(dbHelper);
+        this.windowMillis = windowMillis;
+    }
+
+    // Returns false if the notification was a duplicate
+    public boolean dispatch(int userId, String phone, String dedupeKey, String body) {
+        long now = System.currentTimeMillis();
+        long dueAt = outbox.enqueueCoalesced(userId, phone, dedupeKey, body, now, windowMillis);
+        if (dueAt < 0) return false;
+        SmsOutboxWorker.enqueue(appContext, dueAt - now);
+        return true;
+    }
+}
@@ -0,0 +1,140 @@
+package com.example.nashellisweighttracker;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+
+/**
+ * Salted PBKDF2 password hashes, stored as "pbkdf2-sha1$iterations$salt$hash"
+ * with hex-encoded salt and hash.
+ *
+ * The iteration count is kept in each stored hash, so raising the cost leaves
+ * existing passwords verifiable; needsRehash tells the caller to upgrade them.
+ * Hashing takes tens to hundreds of milliseconds, never call it on the main thread.
+ */
+public class PasswordHasher {
+
+    // PBKDF2WithHmacSHA256 needs API 26, SHA1 is available from minSdk 24
+    private static final String ALGORITHM = "PBKDF2WithHmacSHA1";
+    private static final String PREFIX = "pbkdf2-sha1";
+    private static final int SALT_BYTES = 16;
+    private static final int HASH_BITS = 256;
+
+    // Re-check with PasswordHasherBenchmark on the slowest supported device when changing
+    static final int DEFAULT_ITERATIONS = 60000;
+    static final int MIN_ITERATIONS = 10000;
+
+    private final SecureRandom random = new SecureRandom();
+    private final int iterations;
+
+    public PasswordHasher(int iterations) {
+        this.iterations = iterations;
+    }
+
+    public int getIterations() {
+        return iterations;
+    }
+
+    public String hash(String password) {
+        byte[] salt = new byte[SALT_BYTES];
+        random.nextBytes(salt);
+        byte[] hash = pbkdf2(password, salt, iterations);
+        return PREFIX + "$" + iterations + "$" + toHex(salt) + "$" + toHex(hash);
+    }
+
+    // Stored values without the hash prefix are plaintext from before hashing was added
+    public boolean verify(String password, String stored) {
+        if (stored == null) return false;
+        if (!isHashed(stored)) {
+            return constantTimeEquals(password.getBytes(StandardCharsets.UTF_8),
+                    stored.getBytes(StandardCharsets.UTF_8));
+        }
+
+        String[] parts = stored.split("\\$");
+        if (parts.length != 4) return false;
+        try {
+            int storedIterations = Integer.parseInt(parts[1]);
+            byte[] salt = fromHex(parts[2]);
+            byte[] expected = fromHex(parts[3]);
+            return constantTimeEquals(pbkdf2(password, salt, storedIterations), expected);
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    // True for plaintext or hashes made with fewer iterations than this hasher uses
+    public boolean needsRehash(String stored) {
+        if (stored == null || !isHashed(stored)) return true;
+        String[] parts = stored.split("\\$");
+        try {
+            return parts.length != 4 || Integer.parseInt(parts[1]) < iterations;
+        } catch (NumberFormatException e) {
+            return true;
+        }
+    }
+
+    /**
+     * Picks the largest iteration count that hashes within budgetMillis on this
+     * device, rounded down to a multiple of MIN_ITERATIONS and never below it.
+     */
+    public static int calibrate(long budgetMillis) {
+        // Warm up the provider so class loading is not timed
+        pbkdf2("calibration", new byte[SALT_BYTES], MIN_ITERATIONS);
+
+        long start = System.nanoTime();
+        pbkdf2("calibration", new byte[SALT_BYTES], MIN_ITERATIONS);
+        long elapsedNanos = Math.max(1, System.nanoTime() - start);
+
+        long affordable = budgetMillis * 1000000L * MIN_ITERATIONS / elapsedNanos;
+        long rounded = affordable / MIN_ITERATIONS * MIN_ITERATIONS;
+        return (int) Math.max(MIN_ITERATIONS, Math.min(rounded, Integer.MAX_VALUE));
+    }
+
+    static boolean isHashed(String stored) {
+        return stored.startsWith(PREFIX + "$");
+    }
+
+    // Compares every byte so the time taken does not reveal where the first mismatch is
+    static boolean constantTimeEquals(byte[] a, byte[] b) {
+        int diff = a.length ^ b.length;
+        for (int i = 0; i < a.length && i < b.length; i++) {
+            diff |= a[i] ^ b[i];
+        }
+        return diff == 0;
+    }
+
+    private static byte[] pbkdf2(String password, byte[] salt, int iterations) {
+        PBEKeySpec spec = new PBEKeySpec(password.toCharArray(), salt, iterations, HASH_BITS);
+        try {
+            return SecretKeyFactory.getInstance(ALGORITHM).generateSecret(spec).getEncoded();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(ALGORITHM + " unavailable", e);
+        } finally {
+            spec.clearPassword();
+        }
+    }
+
+    private static String toHex(byte[] bytes) {
+        StringBuilder sb = new StringBuilder(bytes.length * 2);
+        for (byte b : bytes) {
+            sb.append(Character.forDigit((b >> 4) & 0xF, 16));
+            sb.append(Character.forDigit(b & 0xF, 16));
+        }
+        return sb.toString();
+    }
+
+    private static byte[] fromHex(String hex) {
+        if (hex.length() % 2 != 0) throw new IllegalArgumentException("Odd hex length");
+        byte[] bytes = new byte[hex.length() / 2];
+        for (int i = 0; i < bytes.length; i++) {
+            int high = Character.digit(hex.charAt(i * 2), 16);
+            int low = Character.digit(hex.charAt(i * 2 + 1), 16);
+            if (high < 0 || low < 0) throw new IllegalArgumentException("Bad hex digit");
+            bytes[i] = (byte) ((high << 4) | low);
+        }
+        return bytes;
+    }
+}
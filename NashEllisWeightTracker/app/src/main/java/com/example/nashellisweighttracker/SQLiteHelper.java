@@ -4,16 +4,23 @@ import android.content.ContentValues;
 import android.content.Context;
 import android.database.Cursor;
 import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteDoneException;
 import android.database.sqlite.SQLiteOpenHelper;
+import android.database.sqlite.SQLiteStatement;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
 
 public class SQLiteHelper extends SQLiteOpenHelper {
 
     private static final String DATABASE_NAME = "WeightTracker.db";
-    private static final int DATABASE_VERSION = 2;
+    private static final int DATABASE_VERSION = DatabaseMigrations.LATEST_VERSION;
 
     // Table names
     private static final String TABLE_USERS = "users";
     private static final String TABLE_WEIGHTS = "weights";
+    private static final String TABLE_GOAL_PROGRESS = "goal_progress";
 
     // Columns for users table
     private static final String COLUMN_USER_ID = "id";
@@ -24,11 +31,94 @@ public class SQLiteHelper extends SQLiteOpenHelper {
     // Columns for weights table
     private static final String COLUMN_WEIGHT_ID = "id";
     private static final String COLUMN_WEIGHT = "weight";
-    private static final String COLUMN_DATE = "date";
+    private static final String COLUMN_DATE = "date"; // epoch day, see EpochDays
     private static final String COLUMN_USER_ID_FK = "user_id";
 
-    public SQLiteHelper(Context context) {
-        super(context, DATABASE_NAME, null, DATABASE_VERSION);
+    // Indexes backing every per-user lookup on the weights table
+    private static final String INDEX_WEIGHTS_USER = "idx_weights_user_id";
+    private static final String INDEX_WEIGHTS_USER_DATE = "idx_weights_user_date";
+    private static final String CREATE_WEIGHTS_USER_INDEX = "CREATE INDEX IF NOT EXISTS " +
+            INDEX_WEIGHTS_USER + " ON " + TABLE_WEIGHTS + " (" +
+            COLUMN_USER_ID_FK + ", " + COLUMN_WEIGHT_ID + ")";
+    private static final String CREATE_WEIGHTS_USER_DATE_INDEX = "CREATE INDEX IF NOT EXISTS " +
+            INDEX_WEIGHTS_USER_DATE + " ON " + TABLE_WEIGHTS + " (" +
+            COLUMN_USER_ID_FK + ", " + COLUMN_DATE + ")";
+
+    // Queries checked against EXPLAIN QUERY PLAN in SQLiteHelperQueryPlanTest
+    static final String QUERY_USER_EXISTS = "SELECT COUNT(*) FROM " + TABLE_USERS +
+            " WHERE " + COLUMN_USERNAME + " = ?";
+    static final String QUERY_CREDENTIALS = "SELECT " + COLUMN_USER_ID + ", " + COLUMN_GOAL_WEIGHT + ", " +
+            COLUMN_PASSWORD + " FROM " + TABLE_USERS + " WHERE " + COLUMN_USERNAME + "=?";
+    static final String QUERY_USER_ID = "SELECT " + COLUMN_USER_ID + " FROM " + TABLE_USERS +
+            " WHERE " + COLUMN_USERNAME + "=?";
+    static final String QUERY_GOAL_WEIGHT = "SELECT " + COLUMN_GOAL_WEIGHT + " FROM " + TABLE_USERS +
+            " WHERE " + COLUMN_USER_ID + "=?";
+    static final String QUERY_WEIGHTS_BY_USER = "SELECT * FROM " + TABLE_WEIGHTS +
+            " WHERE " + COLUMN_USER_ID_FK + " = ? " +
+            "ORDER BY " + COLUMN_WEIGHT_ID + " ASC";
+    static final String QUERY_WEIGHTS_PAGE = "SELECT * FROM " + TABLE_WEIGHTS +
+            " WHERE " + COLUMN_USER_ID_FK + " = ? AND " + COLUMN_WEIGHT_ID + " > ? " +
+            "ORDER BY " + COLUMN_WEIGHT_ID + " ASC LIMIT ?";
+    static final String QUERY_WEIGHTS_BETWEEN = "SELECT * FROM " + TABLE_WEIGHTS +
+            " WHERE " + COLUMN_USER_ID_FK + " = ? AND " + COLUMN_DATE + " BETWEEN ? AND ? " +
+            "ORDER BY " + COLUMN_DATE + " ASC, " + COLUMN_WEIGHT_ID + " ASC";
+    static final String QUERY_STATS = "SELECT COUNT(" + COLUMN_WEIGHT + "), MIN(" + COLUMN_WEIGHT + "), " +
+            "MAX(" + COLUMN_WEIGHT + "), AVG(" + COLUMN_WEIGHT + ") FROM " + TABLE_WEIGHTS +
+            " WHERE " + COLUMN_USER_ID_FK + " = ? AND " + COLUMN_DATE + " BETWEEN ? AND ?";
+    static final String QUERY_LATEST_WEIGHT = "SELECT " + COLUMN_WEIGHT + " FROM " + TABLE_WEIGHTS +
+            " WHERE " + COLUMN_USER_ID_FK + " = ? " +
+            "ORDER BY " + COLUMN_DATE + " DESC, " + COLUMN_WEIGHT_ID + " DESC LIMIT 1";
+
+    private static final String QUERY_WEIGHT_OWNER = "SELECT " + COLUMN_USER_ID_FK + ", " + COLUMN_DATE +
+            " FROM " + TABLE_WEIGHTS + " WHERE " + COLUMN_WEIGHT_ID + " = ?";
+
+    private static final String CREATE_GOAL_PROGRESS_TABLE = "CREATE TABLE IF NOT EXISTS " +
+            TABLE_GOAL_PROGRESS + " (user_id INTEGER PRIMARY KEY, goal_weight REAL NOT NULL, " +
+            "start_weight REAL NOT NULL, last_day INTEGER NOT NULL, streak_days INTEGER NOT NULL, " +
+            "fired INTEGER NOT NULL)";
+    private static final String QUERY_GOAL_PROGRESS = "SELECT goal_weight, start_weight, last_day, " +
+            "streak_days, fired FROM " + TABLE_GOAL_PROGRESS + " WHERE user_id = ?";
+    private static final String SAVE_GOAL_PROGRESS = "INSERT OR REPLACE INTO " + TABLE_GOAL_PROGRESS +
+            " (user_id, goal_weight, start_weight, last_day, streak_days, fired) VALUES (?, ?, ?, ?, ?, ?)";
+
+    // OR IGNORE: a username taken after the exists check comes back as -1 rather than throwing
+    private static final String INSERT_USER = "INSERT OR IGNORE INTO " + TABLE_USERS + " (" +
+            COLUMN_USERNAME + ", " + COLUMN_PASSWORD + ", " + COLUMN_GOAL_WEIGHT + ") VALUES (?, ?, ?)";
+    private static final String UPDATE_PASSWORD = "UPDATE " + TABLE_USERS + " SET " +
+            COLUMN_PASSWORD + " = ? WHERE " + COLUMN_USER_ID + " = ?";
+    private static final String INSERT_WEIGHT = "INSERT INTO " + TABLE_WEIGHTS + " (" +
+            COLUMN_USER_ID_FK + ", " + COLUMN_WEIGHT + ", " + COLUMN_DATE + ") VALUES (?, ?, ?)";
+
+    private static SQLiteHelper instance;
+
+    // Compiled once per SQL string; each statement is locked while it is bound and run
+    private final Map<String, SQLiteStatement> statements = new HashMap<>();
+
+    // Cost of newly stored password hashes; tests swap in a cheaper one
+    private PasswordHasher passwordHasher = new PasswordHasher(PasswordHasher.DEFAULT_ITERATIONS);
+    private String decoyHash;
+
+    // One helper per process, so every screen shares the same connection pool
+    public static synchronized SQLiteHelper getInstance(Context context) {
+        if (instance == null) {
+            instance = new SQLiteHelper(context.getApplicationContext(), DATABASE_NAME);
+        }
+        return instance;
+    }
+
+    // A null name creates an in-memory database, used by the instrumented tests
+    SQLiteHelper(Context context, String name) {
+        super(context, name, null, DATABASE_VERSION);
+        // WAL lets readers run on pooled connections while a write is in progress
+        if (name != null) setWriteAheadLoggingEnabled(true);
+    }
+
+    @Override
+    public void onConfigure(SQLiteDatabase db) {
+        // With WAL, NORMAL only syncs at checkpoints and still never corrupts the database
+        if (db.isWriteAheadLoggingEnabled()) {
+            db.execSQL("PRAGMA synchronous=NORMAL");
+        }
     }
 
     @Override
@@ -44,57 +134,162 @@ public class SQLiteHelper extends SQLiteOpenHelper {
                 COLUMN_WEIGHT_ID + " INTEGER PRIMARY KEY AUTOINCREMENT, " +
                 COLUMN_USER_ID_FK + " INTEGER, " +
                 COLUMN_WEIGHT + " REAL, " +
-                COLUMN_DATE + " TEXT, " +
+                COLUMN_DATE + " INTEGER, " +
                 "FOREIGN KEY(" + COLUMN_USER_ID_FK + ") REFERENCES " +
                 TABLE_USERS + "(" + COLUMN_USER_ID + "))";
         db.execSQL(createWeightsTable);
+        db.execSQL(CREATE_WEIGHTS_USER_INDEX);
+        db.execSQL(CREATE_WEIGHTS_USER_DATE_INDEX);
+        db.execSQL(WeightRollups.CREATE_TABLE);
+        db.execSQL(SmsOutbox.CREATE_TABLE);
+        db.execSQL(SmsOutbox.CREATE_DUE_INDEX);
+        db.execSQL(SmsOutbox.CREATE_DEDUPE_INDEX);
+        db.execSQL(CREATE_GOAL_PROGRESS_TABLE);
     }
 
     @Override
     public void onUpgrade(SQLiteDatabase db, int oldVersion, int newVersion) {
-        db.execSQL("DROP TABLE IF EXISTS " + TABLE_WEIGHTS);
-        db.execSQL("DROP TABLE IF EXISTS " + TABLE_USERS);
-        onCreate(db);
+        DatabaseMigrations.migrate(db, oldVersion, newVersion);
+    }
+
+    @Override
+    public synchronized void close() {
+        synchronized (statements) {
+            for (SQLiteStatement statement : statements.values()) {
+                statement.close();
+            }
+            statements.clear();
+        }
+        super.close();
+    }
+
+    void setPasswordHasher(PasswordHasher passwordHasher) {
+        this.passwordHasher = passwordHasher;
+        this.decoyHash = null;
+    }
+
+    // Verified against for unknown usernames, so they take as long to reject as a wrong password
+    private synchronized String decoyHash() {
+        if (decoyHash == null) decoyHash = passwordHasher.hash(Long.toString(System.nanoTime()));
+        return decoyHash;
+    }
+
+    private SQLiteStatement statement(String sql) {
+        synchronized (statements) {
+            SQLiteStatement statement = statements.get(sql);
+            if (statement == null) {
+                statement = getWritableDatabase().compileStatement(sql);
+                statements.put(sql, statement);
+            }
+            return statement;
+        }
     }
 
 
     // Users CRUD
+    // registerUser and authenticate hash the password, so they must run off the main thread.
+    // LoginViewModel runs the same steps itself, with the hashing kept off the database thread.
 
     public boolean registerUser(String username, String password, float goalWeight) {
-        SQLiteDatabase db = this.getWritableDatabase();
+        if (userExists(username)) return false;
+        return insertUser(username, hashPassword(password), goalWeight);
+    }
 
-        try (Cursor cursor = db.rawQuery(
-                "SELECT * FROM " + TABLE_USERS + " WHERE " + COLUMN_USERNAME + " = ?",
-                new String[]{username})) {
-            if (cursor.getCount() > 0) return false;
+    // Cheap early out so a taken name does not pay for hashing; insertUser stays authoritative
+    public boolean userExists(String username) {
+        SQLiteStatement exists = statement(QUERY_USER_EXISTS);
+        synchronized (exists) {
+            exists.bindString(1, username);
+            return exists.simpleQueryForLong() > 0;
         }
+    }
 
-        ContentValues values = new ContentValues();
-        values.put(COLUMN_USERNAME, username);
-        values.put(COLUMN_PASSWORD, password);
-        values.put(COLUMN_GOAL_WEIGHT, goalWeight);
-
-        long result = db.insert(TABLE_USERS, null, values);
-        return result != -1;
+    // Returns false if the username is already taken
+    public boolean insertUser(String username, String passwordHash, float goalWeight) {
+        SQLiteStatement insert = statement(INSERT_USER);
+        synchronized (insert) {
+            insert.bindString(1, username);
+            insert.bindString(2, passwordHash);
+            insert.bindDouble(3, goalWeight);
+            return insert.executeInsert() != -1;
+        }
     }
 
     public boolean validateLogin(String username, String password) {
+        return authenticate(username, password) != null;
+    }
+
+    // Null if the login is invalid
+    public UserSession authenticate(String username, String password) {
+        Credentials credentials = getCredentials(username);
+        if (!checkPassword(credentials, password)) return null;
+        if (needsRehash(credentials)) updatePasswordHash(credentials.userId, hashPassword(password));
+        return credentials.toSession();
+    }
+
+    // What a login is checked against, read without hashing
+    public static final class Credentials {
+        final int userId;
+        final float goalWeight;
+        final String passwordHash;
+
+        Credentials(int userId, float goalWeight, String passwordHash) {
+            this.userId = userId;
+            this.goalWeight = goalWeight;
+            this.passwordHash = passwordHash;
+        }
+
+        public UserSession toSession() {
+            return new UserSession(userId, goalWeight);
+        }
+    }
+
+    // One lookup for everything the weight log needs at startup; null if there is no such user
+    public Credentials getCredentials(String username) {
         SQLiteDatabase db = this.getReadableDatabase();
-        try (Cursor cursor = db.rawQuery(
-                "SELECT * FROM " + TABLE_USERS + " WHERE " + COLUMN_USERNAME + "=? AND " + COLUMN_PASSWORD + "=?",
-                new String[]{username, password})) {
-            return cursor.getCount() > 0;
+        try (Cursor cursor = db.rawQuery(QUERY_CREDENTIALS, new String[]{username})) {
+            if (!cursor.moveToFirst()) return null;
+            return new Credentials(cursor.getInt(0), cursor.getFloat(1), cursor.getString(2));
+        }
+    }
+
+    // Hashing only, safe on any thread. Unknown users (null) are checked against the decoy hash.
+    public boolean checkPassword(Credentials credentials, String password) {
+        if (credentials == null) {
+            passwordHasher.verify(password, decoyHash());
+            return false;
+        }
+        return passwordHasher.verify(password, credentials.passwordHash);
+    }
+
+    public String hashPassword(String password) {
+        return passwordHasher.hash(password);
+    }
+
+    // Plaintext from older versions and cheaper hashes are upgraded on a successful login
+    public boolean needsRehash(Credentials credentials) {
+        return passwordHasher.needsRehash(credentials.passwordHash);
+    }
+
+    public void updatePasswordHash(int userId, String passwordHash) {
+        SQLiteStatement update = statement(UPDATE_PASSWORD);
+        synchronized (update) {
+            update.bindString(1, passwordHash);
+            update.bindLong(2, userId);
+            update.executeUpdateDelete();
         }
     }
 
     public int getUserId(String username) {
-        SQLiteDatabase db = this.getReadableDatabase();
-        try (Cursor cursor = db.rawQuery(
-                "SELECT " + COLUMN_USER_ID + " FROM " + TABLE_USERS + " WHERE " + COLUMN_USERNAME + "=?",
-                new String[]{username})) {
-            if (cursor.moveToFirst()) return cursor.getInt(0);
+        SQLiteStatement userId = statement(QUERY_USER_ID);
+        synchronized (userId) {
+            userId.bindString(1, username);
+            try {
+                return (int) userId.simpleQueryForLong();
+            } catch (SQLiteDoneException e) {
+                return -1; // No such user
+            }
         }
-        return -1;
     }
 
     public void updateGoalWeight(int userId, float newGoalWeight) {
@@ -105,62 +300,215 @@ public class SQLiteHelper extends SQLiteOpenHelper {
     }
 
     public float getGoalWeight(int userId) {
-        SQLiteDatabase db = this.getReadableDatabase();
-        try (Cursor cursor = db.rawQuery(
-                "SELECT " + COLUMN_GOAL_WEIGHT + " FROM " + TABLE_USERS + " WHERE " + COLUMN_USER_ID + "=?",
-                new String[]{String.valueOf(userId)})) {
-            if (cursor.moveToFirst()) return cursor.getFloat(0);
+        SQLiteStatement goal = statement(QUERY_GOAL_WEIGHT);
+        String value;
+        synchronized (goal) {
+            goal.bindLong(1, userId);
+            try {
+                value = goal.simpleQueryForString();
+            } catch (SQLiteDoneException e) {
+                return 0; // No such user
+            }
         }
-        return 0;
+        return value != null ? Float.parseFloat(value) : 0;
     }
 
     public void deleteUser(int userId) {
         SQLiteDatabase db = this.getWritableDatabase();
-        db.delete(TABLE_WEIGHTS, COLUMN_USER_ID_FK + "=?", new String[]{String.valueOf(userId)});
-        db.delete(TABLE_USERS, COLUMN_USER_ID + "=?", new String[]{String.valueOf(userId)});
+        db.beginTransaction();
+        try (WeightRollups rollups = new WeightRollups(db)) {
+            db.delete(TABLE_WEIGHTS, COLUMN_USER_ID_FK + "=?", new String[]{String.valueOf(userId)});
+            rollups.deleteAll(userId);
+            db.delete(TABLE_GOAL_PROGRESS, "user_id=?", new String[]{String.valueOf(userId)});
+            db.delete(TABLE_USERS, COLUMN_USER_ID + "=?", new String[]{String.valueOf(userId)});
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
     }
 
 
     // Weight Entries CRUD
 
-    public boolean insertWeight(int userId, float weight, String date) {
+    // Returns the id of the new entry, or -1 if it could not be inserted
+    public long insertWeight(int userId, float weight, int epochDay) {
         SQLiteDatabase db = this.getWritableDatabase();
         ContentValues values = new ContentValues();
         values.put(COLUMN_USER_ID_FK, userId);
         values.put(COLUMN_WEIGHT, weight);
-        values.put(COLUMN_DATE, date);
-        long result = db.insert(TABLE_WEIGHTS, null, values);
-        return result != -1;
+        values.put(COLUMN_DATE, epochDay);
+
+        db.beginTransaction();
+        try (WeightRollups rollups = new WeightRollups(db)) {
+            long id = db.insert(TABLE_WEIGHTS, null, values);
+            if (id == -1) return -1;
+            rollups.add(userId, epochDay, weight);
+            db.setTransactionSuccessful();
+            return id;
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    // Inserts every entry in one transaction, reusing a single compiled statement.
+    // Returns the number of rows inserted.
+    public int insertWeights(int userId, Collection<WeightEntry> entries) {
+        SQLiteDatabase db = this.getWritableDatabase();
+        int inserted = 0;
+
+        db.beginTransaction();
+        try (SQLiteStatement statement = db.compileStatement(INSERT_WEIGHT);
+             WeightRollups rollups = new WeightRollups(db)) {
+            for (WeightEntry entry : entries) {
+                statement.clearBindings();
+                statement.bindLong(1, userId);
+                statement.bindDouble(2, entry.getWeight());
+                // Undated rows are kept with a NULL date and left out of the rollups
+                boolean dated = entry.getEpochDay() != WeightEntryList.UNKNOWN_DAY;
+                if (dated) {
+                    statement.bindLong(3, entry.getEpochDay());
+                } else {
+                    statement.bindNull(3);
+                }
+                if (statement.executeInsert() != -1) {
+                    if (dated) rollups.add(userId, entry.getEpochDay(), entry.getWeight());
+                    inserted++;
+                }
+            }
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+        return inserted;
     }
 
     public Cursor getAllWeightEntries(int userId) {
         SQLiteDatabase db = this.getReadableDatabase();
-        return db.rawQuery(
-                "SELECT * FROM " + TABLE_WEIGHTS +
-                        " WHERE " + COLUMN_USER_ID_FK + " = ? " +
-                        "ORDER BY " + COLUMN_WEIGHT_ID + " ASC",
-                new String[]{String.valueOf(userId)}
-        );
+        return db.rawQuery(QUERY_WEIGHTS_BY_USER, new String[]{String.valueOf(userId)});
+    }
+
+    // Keyset pagination: returns up to `limit` entries with an id greater than `afterId`
+    public Cursor getWeightEntriesPage(int userId, long afterId, int limit) {
+        SQLiteDatabase db = this.getReadableDatabase();
+        return db.rawQuery(QUERY_WEIGHTS_PAGE,
+                new String[]{String.valueOf(userId), String.valueOf(afterId), String.valueOf(limit)});
+    }
+
+    // Entries dated within [fromEpochDay, toEpochDay], oldest first
+    public Cursor getWeightsBetween(int userId, int fromEpochDay, int toEpochDay) {
+        SQLiteDatabase db = this.getReadableDatabase();
+        return db.rawQuery(QUERY_WEIGHTS_BETWEEN, new String[]{
+                String.valueOf(userId), String.valueOf(fromEpochDay), String.valueOf(toEpochDay)});
+    }
+
+    public WeightStats getStats(int userId, int fromEpochDay, int toEpochDay) {
+        SQLiteDatabase db = this.getReadableDatabase();
+        try (Cursor cursor = db.rawQuery(QUERY_STATS, new String[]{
+                String.valueOf(userId), String.valueOf(fromEpochDay), String.valueOf(toEpochDay)})) {
+            if (cursor.moveToFirst() && cursor.getInt(0) > 0) {
+                return new WeightStats(cursor.getInt(0), cursor.getFloat(1), cursor.getFloat(2), cursor.getFloat(3));
+            }
+        }
+        return new WeightStats(0, 0, 0, 0);
     }
 
-    public boolean updateWeight(int weightId, float newWeight, String newDate) {
+    // Stats over the last windowDays days, including today
+    public WeightStats getStats(int userId, int windowDays) {
+        int today = EpochDays.today();
+        return getStats(userId, today - windowDays + 1, today);
+    }
+
+    // Most recently dated weight, or -1 if the user has no entries
+    public float getLatestWeight(int userId) {
+        SQLiteDatabase db = this.getReadableDatabase();
+        try (Cursor cursor = db.rawQuery(QUERY_LATEST_WEIGHT, new String[]{String.valueOf(userId)})) {
+            if (cursor.moveToFirst()) return cursor.getFloat(0);
+        }
+        return -1;
+    }
+
+    // Goal rule state, see GoalRuleEngine; null until the user's first evaluated entry
+    public GoalProgress getGoalProgress(int userId) {
+        SQLiteDatabase db = this.getReadableDatabase();
+        try (Cursor cursor = db.rawQuery(QUERY_GOAL_PROGRESS, new String[]{String.valueOf(userId)})) {
+            if (!cursor.moveToFirst()) return null;
+            return new GoalProgress(cursor.getFloat(0), cursor.getFloat(1), cursor.getInt(2),
+                    cursor.getInt(3), cursor.getInt(4));
+        }
+    }
+
+    public void saveGoalProgress(int userId, GoalProgress progress) {
+        SQLiteStatement save = statement(SAVE_GOAL_PROGRESS);
+        synchronized (save) {
+            save.bindLong(1, userId);
+            save.bindDouble(2, progress.getGoalWeight());
+            save.bindDouble(3, progress.getStartWeight());
+            save.bindLong(4, progress.getLastEpochDay());
+            save.bindLong(5, progress.getStreakDays());
+            save.bindLong(6, progress.getFired());
+            save.execute();
+        }
+    }
+
+    // Aggregates per day, week or month bucket (see WeightRollups), oldest bucket first
+    public Cursor getRollups(int userId, int period, int fromBucket, int toBucket) {
+        SQLiteDatabase db = this.getReadableDatabase();
+        return db.rawQuery(WeightRollups.QUERY_ROLLUPS, new String[]{String.valueOf(userId),
+                String.valueOf(period), String.valueOf(fromBucket), String.valueOf(toBucket)});
+    }
+
+    public boolean updateWeight(int weightId, float newWeight, int newEpochDay) {
         SQLiteDatabase db = this.getWritableDatabase();
         ContentValues values = new ContentValues();
         values.put(COLUMN_WEIGHT, newWeight);
-        values.put(COLUMN_DATE, newDate);
-        int rows = db.update(TABLE_WEIGHTS, values, COLUMN_WEIGHT_ID + "=?", new String[]{String.valueOf(weightId)});
-        return rows > 0;
+        values.put(COLUMN_DATE, newEpochDay);
+
+        db.beginTransaction();
+        try (WeightRollups rollups = new WeightRollups(db);
+             Cursor old = db.rawQuery(QUERY_WEIGHT_OWNER, new String[]{String.valueOf(weightId)})) {
+            if (!old.moveToFirst()) return false;
+            int userId = old.getInt(0);
+
+            db.update(TABLE_WEIGHTS, values, COLUMN_WEIGHT_ID + "=?", new String[]{String.valueOf(weightId)});
+            if (!old.isNull(1) && old.getInt(1) != newEpochDay) {
+                rollups.recompute(userId, old.getInt(1));
+            }
+            rollups.recompute(userId, newEpochDay);
+            db.setTransactionSuccessful();
+            return true;
+        } finally {
+            db.endTransaction();
+        }
     }
 
     public boolean deleteWeight(int weightId) {
         SQLiteDatabase db = this.getWritableDatabase();
-        int rows = db.delete(TABLE_WEIGHTS, COLUMN_WEIGHT_ID + "=?", new String[]{String.valueOf(weightId)});
-        return rows > 0;
+        db.beginTransaction();
+        try (WeightRollups rollups = new WeightRollups(db);
+             Cursor old = db.rawQuery(QUERY_WEIGHT_OWNER, new String[]{String.valueOf(weightId)})) {
+            if (!old.moveToFirst()) return false;
+
+            db.delete(TABLE_WEIGHTS, COLUMN_WEIGHT_ID + "=?", new String[]{String.valueOf(weightId)});
+            if (!old.isNull(1)) {
+                rollups.recompute(old.getInt(0), old.getInt(1));
+            }
+            db.setTransactionSuccessful();
+            return true;
+        } finally {
+            db.endTransaction();
+        }
     }
 
     public boolean deleteAllWeights(int userId) {
         SQLiteDatabase db = this.getWritableDatabase();
-        int rows = db.delete(TABLE_WEIGHTS, COLUMN_USER_ID_FK + "=?", new String[]{String.valueOf(userId)});
-        return rows > 0;
+        db.beginTransaction();
+        try (WeightRollups rollups = new WeightRollups(db)) {
+            int rows = db.delete(TABLE_WEIGHTS, COLUMN_USER_ID_FK + "=?", new String[]{String.valueOf(userId)});
+            rollups.deleteAll(userId);
+            db.setTransactionSuccessful();
+            return rows > 0;
+        } finally {
+            db.endTransaction();
+        }
     }
 }
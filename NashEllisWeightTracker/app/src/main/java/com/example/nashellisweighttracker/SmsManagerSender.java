@@ -0,0 +1,53 @@
+package com.example.nashellisweighttracker;
+
+import android.app.PendingIntent;
+import android.content.Context;
+import android.content.Intent;
+import android.telephony.SmsManager;
+
+import java.util.ArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends outbox batches with SmsManager, asking for sent and delivery reports
+ * to be broadcast to SmsStatusReceiver.
+ */
+class SmsManagerSender implements SmsSender {
+
+    // Seeded from the clock so codes from an earlier process are unlikely to be reused
+    private static final AtomicInteger nextRequestCode = new AtomicInteger((int) System.currentTimeMillis());
+
+    private final Context context;
+
+    SmsManagerSender(Context context) {
+        this.context = context.getApplicationContext();
+    }
+
+    @Override
+    public void send(NotificationCoalescer.Batch batch) {
+        SmsManager smsManager = SmsManager.getDefault();
+        long[] ids = batch.getIds();
+        ArrayList<String> parts = smsManager.divideMessage(batch.getBody());
+
+        // Only the last part reports back, so a batch is settled once, when all of it went out
+        ArrayList<PendingIntent> sentIntents = new ArrayList<>();
+        ArrayList<PendingIntent> deliveryIntents = new ArrayList<>();
+        for (int i = 0; i < parts.size() - 1; i++) {
+            sentIntents.add(null);
+            deliveryIntents.add(null);
+        }
+        sentIntents.add(reportIntent(SmsStatusReceiver.ACTION_SENT, ids));
+        deliveryIntents.add(reportIntent(SmsStatusReceiver.ACTION_DELIVERED, ids));
+        smsManager.sendMultipartTextMessage(batch.getPhone(), null, parts, sentIntents, deliveryIntents);
+    }
+
+    private PendingIntent reportIntent(String action, long[] messageIds) {
+        Intent intent = new Intent(context, SmsStatusReceiver.class)
+                .setAction(action)
+                .putExtra(SmsStatusReceiver.EXTRA_MESSAGE_IDS, messageIds);
+        // A fresh request code per send keeps a retried batch from matching an earlier PendingIntent,
+        // and FLAG_UPDATE_CURRENT makes sure the extras are this send's ids if one does collide
+        return PendingIntent.getBroadcast(context, nextRequestCode.getAndIncrement(), intent,
+                PendingIntent.FLAG_UPDATE_CURRENT | PendingIntent.FLAG_IMMUTABLE);
+    }
+}
@@ -0,0 +1,248 @@
+package com.example.nashellisweighttracker;
+
+import android.content.ContentValues;
+import android.database.Cursor;
+import android.database.DatabaseUtils;
+import android.database.sqlite.SQLiteDatabase;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Durable queue of outgoing SMS messages in the sms_outbox table.
+ *
+ * A message moves PENDING -> SENDING when SmsOutboxWorker claims it, then to SENT
+ * and DELIVERED as the carrier reports back through SmsStatusReceiver. A failed
+ * attempt returns it to PENDING with an exponential backoff, until MAX_ATTEMPTS
+ * leaves it FAILED. Times are wall-clock milliseconds so they survive a reboot.
+ */
+final class SmsOutbox {
+
+    static final int STATUS_PENDING = 0;
+    static final int STATUS_SENDING = 1;
+    static final int STATUS_SENT = 2;
+    static final int STATUS_DELIVERED = 3;
+    static final int STATUS_FAILED = 4;
+
+    static final int MAX_ATTEMPTS = 6;
+    static final long BASE_BACKOFF_MILLIS = 30 * 1000L;
+    static final long MAX_BACKOFF_MILLIS = 60 * 60 * 1000L;
+    // A SENDING message with no sent report by then is treated as a failed attempt
+    static final long SENDING_TIMEOUT_MILLIS = 10 * 60 * 1000L;
+
+    static final String TABLE_OUTBOX = "sms_outbox";
+    static final String CREATE_TABLE = "CREATE TABLE IF NOT EXISTS " + TABLE_OUTBOX + " (" +
+            "id INTEGER PRIMARY KEY AUTOINCREMENT, user_id INTEGER, " +
+            "phone TEXT NOT NULL, body TEXT NOT NULL, status INTEGER NOT NULL DEFAULT 0, " +
+            "attempts INTEGER NOT NULL DEFAULT 0, next_attempt_at INTEGER NOT NULL DEFAULT 0, " +
+            "updated_at INTEGER NOT NULL DEFAULT 0, dedupe_key TEXT, created_at INTEGER NOT NULL DEFAULT 0)";
+    static final String CREATE_DUE_INDEX = "CREATE INDEX IF NOT EXISTS idx_sms_outbox_due ON " +
+            TABLE_OUTBOX + " (status, next_attempt_at)";
+    static final String CREATE_DEDUPE_INDEX = "CREATE INDEX IF NOT EXISTS idx_sms_outbox_dedupe ON " +
+            TABLE_OUTBOX + " (user_id, dedupe_key)";
+
+    static final String QUERY_DUE = "SELECT id, user_id, phone, body, attempts, dedupe_key FROM " +
+            TABLE_OUTBOX + " WHERE status = " + STATUS_PENDING + " AND next_attempt_at <= ?" +
+            " ORDER BY next_attempt_at ASC, id ASC LIMIT ?";
+    static final String QUERY_DUPLICATE = "SELECT COUNT(*) FROM " + TABLE_OUTBOX +
+            " WHERE user_id = ? AND dedupe_key = ? AND (status IN (" + STATUS_PENDING + ", " +
+            STATUS_SENDING + ") OR created_at > ?)";
+    // An unsent first attempt to the same phone is a batch that is still collecting
+    static final String QUERY_OPEN_BATCH = "SELECT MIN(next_attempt_at) FROM " + TABLE_OUTBOX +
+            " WHERE status = " + STATUS_PENDING + " AND attempts = 0 AND phone = ?";
+    static final String QUERY_STALE = "SELECT id FROM " + TABLE_OUTBOX +
+            " WHERE status = " + STATUS_SENDING + " AND next_attempt_at <= ?";
+
+    static class Message {
+        private final long id;
+        private final int userId;
+        private final String phone;
+        private final String body;
+        private final int attempts;
+        private final String dedupeKey;
+
+        Message(long id, int userId, String phone, String body, int attempts, String dedupeKey) {
+            this.id = id;
+            this.userId = userId;
+            this.phone = phone;
+            this.body = body;
+            this.attempts = attempts;
+            this.dedupeKey = dedupeKey;
+        }
+
+        long getId() {
+            return id;
+        }
+
+        int getUserId() {
+            return userId;
+        }
+
+        String getPhone() {
+            return phone;
+        }
+
+        String getBody() {
+            return body;
+        }
+
+        // Including the attempt in progress
+        int getAttempts() {
+            return attempts;
+        }
+
+        // Null for messages that are never deduplicated
+        String getDedupeKey() {
+            return dedupeKey;
+        }
+    }
+
+    private final SQLiteHelper dbHelper;
+
+    SmsOutbox(SQLiteHelper dbHelper) {
+        this.dbHelper = dbHelper;
+    }
+
+    // Due at once and never deduplicated; notifications go through enqueueCoalesced
+    long enqueue(int userId, String phone, String body, long now) {
+        return insert(userId, phone, null, body, now, now);
+    }
+
+    /**
+     * Queues a notification for NotificationDispatcher and returns when it is due,
+     * or -1 if the same (user, dedupeKey) is unsent or was queued within windowMillis.
+     */
+    long enqueueCoalesced(int userId, String phone, String dedupeKey, String body, long now, long windowMillis) {
+        SQLiteDatabase db = dbHelper.getWritableDatabase();
+        db.beginTransaction();
+        try {
+            long duplicates = DatabaseUtils.longForQuery(db, QUERY_DUPLICATE, new String[]{
+                    String.valueOf(userId), dedupeKey, String.valueOf(now - windowMillis)});
+            if (duplicates > 0) return -1;
+
+            long dueAt = now + windowMillis;
+            try (Cursor cursor = db.rawQuery(QUERY_OPEN_BATCH, new String[]{phone})) {
+                if (cursor.moveToFirst() && !cursor.isNull(0)) dueAt = Math.min(dueAt, cursor.getLong(0));
+            }
+            insert(userId, phone, dedupeKey, body, dueAt, now);
+            db.setTransactionSuccessful();
+            return dueAt;
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    private long insert(int userId, String phone, String dedupeKey, String body, long dueAt, long now) {
+        ContentValues values = new ContentValues();
+        values.put("user_id", userId);
+        values.put("phone", phone);
+        values.put("body", body);
+        values.put("dedupe_key", dedupeKey);
+        values.put("status", STATUS_PENDING);
+        values.put("next_attempt_at", dueAt);
+        values.put("created_at", now);
+        values.put("updated_at", now);
+        return dbHelper.getWritableDatabase().insert(TABLE_OUTBOX, null, values);
+    }
+
+    // Marks up to limit due messages SENDING and returns them, so no other run picks them up
+    List<Message> claimDue(long now, int limit) {
+        SQLiteDatabase db = dbHelper.getWritableDatabase();
+        List<Message> claimed = new ArrayList<>();
+        db.beginTransaction();
+        try {
+            try (Cursor cursor = db.rawQuery(QUERY_DUE,
+                    new String[]{String.valueOf(now), String.valueOf(limit)})) {
+                while (cursor.moveToNext()) {
+                    claimed.add(new Message(cursor.getLong(0), cursor.getInt(1),
+                            cursor.getString(2), cursor.getString(3), cursor.getInt(4) + 1,
+                            cursor.getString(5)));
+                }
+            }
+            for (Message message : claimed) {
+                // next_attempt_at doubles as the SENDING deadline
+                db.execSQL("UPDATE " + TABLE_OUTBOX + " SET status = ?, attempts = ?, " +
+                                "next_attempt_at = ?, updated_at = ? WHERE id = ?",
+                        new Object[]{STATUS_SENDING, message.getAttempts(),
+                                now + SENDING_TIMEOUT_MILLIS, now, message.getId()});
+            }
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+        return claimed;
+    }
+
+    void markSent(long id, long now) {
+        ContentValues values = new ContentValues();
+        values.put("status", STATUS_SENT);
+        values.put("updated_at", now);
+        dbHelper.getWritableDatabase().update(TABLE_OUTBOX, values,
+                "id = ? AND status = " + STATUS_SENDING, new String[]{String.valueOf(id)});
+    }
+
+    // Delivery reports can overtake the sent report, so SENDING is accepted too
+    void markDelivered(long id, long now) {
+        ContentValues values = new ContentValues();
+        values.put("status", STATUS_DELIVERED);
+        values.put("updated_at", now);
+        dbHelper.getWritableDatabase().update(TABLE_OUTBOX, values,
+                "id = ? AND status IN (" + STATUS_SENDING + ", " + STATUS_SENT + ")",
+                new String[]{String.valueOf(id)});
+    }
+
+    // Returns true if the message will be retried, false if it is now FAILED or was not SENDING
+    boolean markFailed(long id, long now) {
+        SQLiteDatabase db = dbHelper.getWritableDatabase();
+        db.beginTransaction();
+        try {
+            int attempts;
+            try (Cursor cursor = db.rawQuery("SELECT attempts FROM " + TABLE_OUTBOX +
+                    " WHERE id = ? AND status = " + STATUS_SENDING, new String[]{String.valueOf(id)})) {
+                if (!cursor.moveToFirst()) return false;
+                attempts = cursor.getInt(0);
+            }
+
+            boolean retry = attempts < MAX_ATTEMPTS;
+            ContentValues values = new ContentValues();
+            values.put("status", retry ? STATUS_PENDING : STATUS_FAILED);
+            values.put("next_attempt_at", retry ? now + backoffMillis(attempts) : now);
+            values.put("updated_at", now);
+            db.update(TABLE_OUTBOX, values, "id = ?", new String[]{String.valueOf(id)});
+            db.setTransactionSuccessful();
+            return retry;
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    // Fails SENDING messages whose sent report never arrived, e.g. after the process died
+    int reclaimStale(long now) {
+        List<Long> stale = new ArrayList<>();
+        try (Cursor cursor = dbHelper.getReadableDatabase().rawQuery(QUERY_STALE,
+                new String[]{String.valueOf(now)})) {
+            while (cursor.moveToNext()) stale.add(cursor.getLong(0));
+        }
+        for (long id : stale) markFailed(id, now);
+        return stale.size();
+    }
+
+    // True while any message is waiting to be sent or for its sent report
+    boolean hasUnfinished() {
+        return DatabaseUtils.queryNumEntries(dbHelper.getReadableDatabase(), TABLE_OUTBOX,
+                "status IN (" + STATUS_PENDING + ", " + STATUS_SENDING + ")") > 0;
+    }
+
+    int getStatus(long id) {
+        try (Cursor cursor = dbHelper.getReadableDatabase().rawQuery("SELECT status FROM " +
+                TABLE_OUTBOX + " WHERE id = ?", new String[]{String.valueOf(id)})) {
+            return cursor.moveToFirst() ? cursor.getInt(0) : -1;
+        }
+    }
+
+    // 30s, 1m, 2m, 4m... after the first, second, third failed attempt, capped at an hour
+    static long backoffMillis(int attempts) {
+        int shift = Math.min(Math.max(attempts - 1, 0), 20);
+        return Math.min(BASE_BACKOFF_MILLIS << shift, MAX_BACKOFF_MILLIS);
+    }
+}
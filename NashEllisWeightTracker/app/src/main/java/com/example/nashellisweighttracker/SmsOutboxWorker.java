@@ -0,0 +1,67 @@
+package com.example.nashellisweighttracker;
+
+import android.content.Context;
+
+import androidx.annotation.NonNull;
+import androidx.work.BackoffPolicy;
+import androidx.work.ExistingWorkPolicy;
+import androidx.work.OneTimeWorkRequest;
+import androidx.work.WorkManager;
+import androidx.work.Worker;
+import androidx.work.WorkerParameters;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Drains the SMS outbox in the background. While messages are still waiting
+ * for a retry or a sent report, the run ends with Result.retry() so WorkManager
+ * comes back with its own exponential backoff, also across process death.
+ */
+public class SmsOutboxWorker extends Worker {
+
+    private static final String WORK_NAME = "sms_outbox";
+    private static final int BATCH_SIZE = 20;
+
+    public SmsOutboxWorker(@NonNull Context context, @NonNull WorkerParameters params) {
+        super(context, params);
+    }
+
+    // Starts a drain after delayMillis, replacing any run waiting on a backoff
+    public static void enqueue(Context context, long delayMillis) {
+        OneTimeWorkRequest request = new OneTimeWorkRequest.Builder(SmsOutboxWorker.class)
+                .setInitialDelay(Math.max(0, delayMillis), TimeUnit.MILLISECONDS)
+                .setBackoffCriteria(BackoffPolicy.EXPONENTIAL,
+                        SmsOutbox.BASE_BACKOFF_MILLIS, TimeUnit.MILLISECONDS)
+                .build();
+        WorkManager.getInstance(context)
+                .enqueueUniqueWork(WORK_NAME, ExistingWorkPolicy.REPLACE, request);
+    }
+
+    @NonNull
+    @Override
+    public Result doWork() {
+        Context context = getApplicationContext();
+        SmsOutbox outbox = new SmsOutbox(SQLiteHelper.getInstance(context));
+        boolean unfinished = drain(outbox, new SmsManagerSender(context), System.currentTimeMillis());
+        return unfinished ? Result.retry() : Result.success();
+    }
+
+    // Sends every due message, one SMS per phone number; returns true if some are still unfinished
+    static boolean drain(SmsOutbox outbox, SmsSender sender, long now) {
+        outbox.reclaimStale(now);
+        List<SmsOutbox.Message> claimed;
+        do {
+            claimed = outbox.claimDue(now, BATCH_SIZE);
+            for (NotificationCoalescer.Batch batch : NotificationCoalescer.coalesce(claimed)) {
+                try {
+                    sender.send(batch);
+                } catch (RuntimeException e) {
+                    // e.g. SEND_SMS revoked or no telephony
+                    for (long id : batch.getIds()) outbox.markFailed(id, now);
+                }
+            }
+        } while (claimed.size() == BATCH_SIZE);
+        return outbox.hasUnfinished();
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.nashellisweighttracker;
+
+/**
+ * Hands one batch of outbox messages to the carrier as a single SMS for SmsOutboxWorker.
+ *
+ * send only starts the attempt. The outcome is reported later for every id in the
+ * batch through SmsOutbox.markSent or markFailed: SmsManagerSender does this from
+ * SmsStatusReceiver, and test fakes may do it before send returns.
+ * Throwing a RuntimeException counts as a failed attempt.
+ */
+interface SmsSender {
+    void send(NotificationCoalescer.Batch batch);
+}
@@ -0,0 +1,48 @@
+package com.example.nashellisweighttracker;
+
+import android.app.Activity;
+import android.content.BroadcastReceiver;
+import android.content.Context;
+import android.content.Intent;
+
+/**
+ * Receives the sent and delivery reports requested by SmsManagerSender and
+ * records them in the outbox. A failed send is rescheduled through SmsOutboxWorker.
+ */
+public class SmsStatusReceiver extends BroadcastReceiver {
+
+    static final String ACTION_SENT = "com.example.nashellisweighttracker.SMS_SENT";
+    static final String ACTION_DELIVERED = "com.example.nashellisweighttracker.SMS_DELIVERED";
+    static final String EXTRA_MESSAGE_IDS = "message_ids";
+
+    @Override
+    public void onReceive(Context context, Intent intent) {
+        long[] messageIds = intent.getLongArrayExtra(EXTRA_MESSAGE_IDS);
+        if (messageIds == null) return;
+        String action = intent.getAction();
+        boolean ok = getResultCode() == Activity.RESULT_OK;
+        Context appContext = context.getApplicationContext();
+
+        // Keep the receiver alive while the outbox is updated off the main thread
+        PendingResult pendingResult = goAsync();
+        AppExecutors.getInstance().diskIO().execute(() -> {
+            try {
+                SmsOutbox outbox = new SmsOutbox(SQLiteHelper.getInstance(appContext));
+                long now = System.currentTimeMillis();
+                boolean retry = false;
+                for (long messageId : messageIds) {
+                    if (ACTION_DELIVERED.equals(action)) {
+                        outbox.markDelivered(messageId, now);
+                    } else if (ok) {
+                        outbox.markSent(messageId, now);
+                    } else {
+                        retry |= outbox.markFailed(messageId, now);
+                    }
+                }
+                if (retry) SmsOutboxWorker.enqueue(appContext, 0);
+            } finally {
+                pendingResult.finish();
+            }
+        });
+    }
+}
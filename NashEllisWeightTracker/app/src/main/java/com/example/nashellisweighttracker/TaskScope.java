@@ -0,0 +1,93 @@
+package com.example.nashellisweighttracker;
+
+import androidx.lifecycle.Lifecycle;
+import androidx.lifecycle.LifecycleEventObserver;
+import androidx.lifecycle.LifecycleOwner;
+
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.function.Consumer;
+
+/**
+ * Background tasks and result callbacks owned by a screen or ViewModel.
+ *
+ * After cancel(), queued tasks are skipped and results still on their way are
+ * dropped, so nothing is delivered to a destroyed Activity. A task that has
+ * already started runs to the end; it is not interrupted mid-transaction.
+ * Methods other than cancel() must be called on the main thread.
+ */
+public class TaskScope {
+
+    private final AppExecutors executors;
+    private final Set<FutureTask<?>> pending = ConcurrentHashMap.newKeySet();
+    private volatile boolean cancelled = false;
+
+    public TaskScope(AppExecutors executors) {
+        this.executors = executors;
+    }
+
+    // A scope cancelled when owner is destroyed, including on configuration changes
+    public static TaskScope bind(LifecycleOwner owner) {
+        TaskScope scope = new TaskScope(AppExecutors.getInstance());
+        owner.getLifecycle().addObserver((LifecycleEventObserver) (source, event) -> {
+            if (event == Lifecycle.Event.ON_DESTROY) scope.cancel();
+        });
+        return scope;
+    }
+
+    // Runs task on the database thread and passes its result to onResult, or what it threw
+    // to onError, on the main thread
+    public <T> void execute(Callable<T> task, Consumer<T> onResult, Consumer<Throwable> onError) {
+        submit(executors.diskIO(), task, onResult, onError);
+    }
+
+    // As execute, but on the background pool, for CPU work that must not hold up database access
+    public <T> void compute(Callable<T> task, Consumer<T> onResult, Consumer<Throwable> onError) {
+        submit(executors.background(), task, onResult, onError);
+    }
+
+    private <T> void submit(Executor executor, Callable<T> task, Consumer<T> onResult, Consumer<Throwable> onError) {
+        if (cancelled) return;
+        Consumer<T> deliver = guard(onResult);
+        Consumer<Throwable> fail = guard(onError);
+        FutureTask<T> future = new FutureTask<T>(task) {
+            @Override
+            protected void done() {
+                pending.remove(this);
+                if (isCancelled()) return;
+                try {
+                    T result = get();
+                    executors.mainThread().execute(() -> deliver.accept(result));
+                } catch (ExecutionException e) {
+                    executors.mainThread().execute(() -> fail.accept(e.getCause()));
+                } catch (InterruptedException e) {
+                    // Not reached: get() does not block once the task is done
+                    Thread.currentThread().interrupt();
+                }
+            }
+        };
+        pending.add(future);
+        executor.execute(future);
+    }
+
+    // Wraps a callback handed to code outside the scope, e.g. WeightRepository
+    public <T> Consumer<T> guard(Consumer<T> callback) {
+        return value -> {
+            if (!cancelled) callback.accept(value);
+        };
+    }
+
+    public void cancel() {
+        cancelled = true;
+        for (FutureTask<?> task : pending) task.cancel(false);
+        pending.clear();
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+}
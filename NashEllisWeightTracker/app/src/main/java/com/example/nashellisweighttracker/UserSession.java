@@ -0,0 +1,41 @@
+package com.example.nashellisweighttracker;
+
+import android.content.Intent;
+
+/**
+ * The logged-in user, returned by SQLiteHelper.authenticate and handed from
+ * LoginActivity to WeightLogActivity as Intent extras.
+ */
+public class UserSession {
+
+    static final String EXTRA_USER_ID = "USER_ID";
+    static final String EXTRA_GOAL_WEIGHT = "GOAL_WEIGHT";
+
+    private final int userId;
+    private final float goalWeight;
+
+    public UserSession(int userId, float goalWeight) {
+        this.userId = userId;
+        this.goalWeight = goalWeight;
+    }
+
+    public int getUserId() {
+        return userId;
+    }
+
+    public float getGoalWeight() {
+        return goalWeight;
+    }
+
+    public void putInto(Intent intent) {
+        intent.putExtra(EXTRA_USER_ID, userId);
+        intent.putExtra(EXTRA_GOAL_WEIGHT, goalWeight);
+    }
+
+    // Returns null if the Intent does not carry a session
+    public static UserSession fromIntent(Intent intent) {
+        int userId = intent.getIntExtra(EXTRA_USER_ID, -1);
+        if (userId == -1) return null;
+        return new UserSession(userId, intent.getFloatExtra(EXTRA_GOAL_WEIGHT, 0));
+    }
+}
@@ -0,0 +1,185 @@
+package com.example.nashellisweighttracker;
+
+import android.database.Cursor;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Streams a user's weight history to and from CSV with one "weight,date" row per entry.
+ * Dates are written as yyyy-MM-dd; the older "MMM dd, yyyy" form is still accepted on import.
+ * Entries whose date was lost in migration are written with an empty date and read back undated.
+ *
+ * Export walks the log one keyset page at a time and import commits fixed-size batches,
+ * so memory use stays constant no matter how long the history is.
+ */
+public class WeightCsv {
+
+    static final String HEADER = "weight,date";
+    private static final int BATCH_SIZE = 500;
+
+    /**
+     * A line import could not read. Batches before it are already committed, so the
+     * exception carries how many rows were saved, for the user to see before retrying.
+     */
+    public static class ImportException extends IOException {
+        private final String reason;
+        private final int lineNumber;
+        private final int importedCount;
+
+        ImportException(String reason, int lineNumber, int importedCount, Throwable cause) {
+            super(reason + " on line " + lineNumber, cause);
+            this.reason = reason;
+            this.lineNumber = lineNumber;
+            this.importedCount = importedCount;
+        }
+
+        public String getReason() {
+            return reason;
+        }
+
+        public int getLineNumber() {
+            return lineNumber;
+        }
+
+        // Rows committed before the failing line
+        public int getImportedCount() {
+            return importedCount;
+        }
+    }
+
+    private final SQLiteHelper dbHelper;
+
+    public WeightCsv(SQLiteHelper dbHelper) {
+        this.dbHelper = dbHelper;
+    }
+
+    // Writes every entry of the user, oldest first. Returns the number of rows written.
+    public int exportTo(int userId, Writer writer) throws IOException {
+        BufferedWriter out = new BufferedWriter(writer);
+        out.write(HEADER);
+        out.write('\n');
+
+        int exported = 0;
+        long afterId = 0;
+        int pageSize;
+        do {
+            pageSize = 0;
+            try (Cursor cursor = dbHelper.getWeightEntriesPage(userId, afterId, BATCH_SIZE)) {
+                int idIndex = cursor.getColumnIndexOrThrow("id");
+                int weightIndex = cursor.getColumnIndexOrThrow("weight");
+                int dateIndex = cursor.getColumnIndexOrThrow("date");
+                while (cursor.moveToNext()) {
+                    afterId = cursor.getLong(idIndex);
+                    out.write(escape(String.valueOf(cursor.getFloat(weightIndex))));
+                    out.write(',');
+                    out.write(cursor.isNull(dateIndex) ? "" : EpochDays.formatIso(cursor.getInt(dateIndex)));
+                    out.write('\n');
+                    pageSize++;
+                }
+            }
+            exported += pageSize;
+        } while (pageSize == BATCH_SIZE);
+
+        out.flush();
+        return exported;
+    }
+
+    // Reads rows written by exportTo and inserts them in batches. Returns the number of rows imported.
+    // Throws ImportException on a bad line, after committing the full batches before it.
+    public int importFrom(int userId, Reader reader) throws IOException {
+        BufferedReader in = new BufferedReader(reader);
+        List<WeightEntry> batch = new ArrayList<>(BATCH_SIZE);
+        int imported = 0;
+        int lineNumber = 0;
+
+        String line;
+        while ((line = in.readLine()) != null) {
+            lineNumber++;
+            if (line.trim().isEmpty()) continue;
+            if (lineNumber == 1 && line.trim().equalsIgnoreCase(HEADER)) continue;
+
+            List<String> fields = parseLine(line);
+            if (fields.size() < 2) {
+                throw new ImportException("Expected weight and date", lineNumber, imported, null);
+            }
+            try {
+                float weight = Float.parseFloat(fields.get(0).trim());
+                batch.add(new WeightEntry(weight, parseDate(fields.get(1))));
+            } catch (NumberFormatException e) {
+                throw new ImportException("Invalid weight", lineNumber, imported, e);
+            } catch (ParseException e) {
+                throw new ImportException("Invalid date", lineNumber, imported, e);
+            }
+
+            if (batch.size() == BATCH_SIZE) {
+                imported += dbHelper.insertWeights(userId, batch);
+                batch.clear();
+            }
+        }
+
+        if (!batch.isEmpty()) {
+            imported += dbHelper.insertWeights(userId, batch);
+        }
+        return imported;
+    }
+
+    static int parseDate(String text) throws ParseException {
+        if (text.trim().isEmpty()) return WeightEntryList.UNKNOWN_DAY;
+        try {
+            return EpochDays.parseIso(text);
+        } catch (ParseException e) {
+            Integer legacy = EpochDays.parseLegacy(text);
+            if (legacy == null) throw e;
+            return legacy;
+        }
+    }
+
+    // Quotes a field if it contains a separator or quote, e.g. the comma in "Jan 05, 2024"
+    static String escape(String field) {
+        if (field == null) return "";
+        if (field.indexOf(',') < 0 && field.indexOf('"') < 0
+                && field.indexOf('\n') < 0 && field.indexOf('\r') < 0) {
+            return field;
+        }
+        return '"' + field.replace("\"", "\"\"") + '"';
+    }
+
+    // Splits a single CSV line, honouring quoted fields and doubled quotes
+    static List<String> parseLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"') {
+                    if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                        field.append('"');
+                        i++;
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.nashellisweighttracker;
+
+/**
+ * A single weight reading to be stored for a user.
+ */
+public class WeightEntry {
+
+    private final float weight;
+    private final int epochDay;
+
+    public WeightEntry(float weight, int epochDay) {
+        this.weight = weight;
+        this.epochDay = epochDay;
+    }
+
+    public float getWeight() {
+        return weight;
+    }
+
+    // Days since 1970-01-01, see EpochDays, or WeightEntryList.UNKNOWN_DAY if undated
+    public int getEpochDay() {
+        return epochDay;
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.nashellisweighttracker;
+
+import java.util.Arrays;
+
+/**
+ * The weight entries shown in the log, held in parallel primitive arrays ordered by id.
+ *
+ * Compared to a list of formatted strings this keeps each entry at 16 bytes, and lets
+ * entries be looked up, edited and removed by id. Text is only produced when a row is bound.
+ */
+public class WeightEntryList {
+
+    // Stored for entries whose date could not be recovered
+    public static final int UNKNOWN_DAY = Integer.MIN_VALUE;
+
+    private long[] ids;
+    private float[] weights;
+    private int[] epochDays;
+    private int size;
+
+    public WeightEntryList() {
+        this(16);
+    }
+
+    public WeightEntryList(int capacity) {
+        ids = new long[capacity];
+        weights = new float[capacity];
+        epochDays = new int[capacity];
+    }
+
+    // A copy that can be changed and submitted without touching this list
+    public WeightEntryList copy() {
+        WeightEntryList copy = new WeightEntryList(0);
+        copy.ids = Arrays.copyOf(ids, size);
+        copy.weights = Arrays.copyOf(weights, size);
+        copy.epochDays = Arrays.copyOf(epochDays, size);
+        copy.size = size;
+        return copy;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public long getId(int index) {
+        return ids[index];
+    }
+
+    public float getWeight(int index) {
+        return weights[index];
+    }
+
+    public int getEpochDay(int index) {
+        return epochDays[index];
+    }
+
+    // Entries must be appended in ascending id order
+    public void add(long id, float weight, int epochDay) {
+        ensureCapacity(size + 1);
+        ids[size] = id;
+        weights[size] = weight;
+        epochDays[size] = epochDay;
+        size++;
+    }
+
+    public void addAll(WeightEntryList other) {
+        ensureCapacity(size + other.size);
+        System.arraycopy(other.ids, 0, ids, size, other.size);
+        System.arraycopy(other.weights, 0, weights, size, other.size);
+        System.arraycopy(other.epochDays, 0, epochDays, size, other.size);
+        size += other.size;
+    }
+
+    public void set(int index, float weight, int epochDay) {
+        weights[index] = weight;
+        epochDays[index] = epochDay;
+    }
+
+    public void removeAt(int index) {
+        int moved = size - index - 1;
+        System.arraycopy(ids, index + 1, ids, index, moved);
+        System.arraycopy(weights, index + 1, weights, index, moved);
+        System.arraycopy(epochDays, index + 1, epochDays, index, moved);
+        size--;
+    }
+
+    // Binary search on the sorted ids; returns -1 if the entry is not loaded
+    public int indexOfId(long id) {
+        int index = Arrays.binarySearch(ids, 0, size, id);
+        return index >= 0 ? index : -1;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= ids.length) return;
+        int newCapacity = Math.max(capacity, ids.length * 2);
+        ids = Arrays.copyOf(ids, newCapacity);
+        weights = Arrays.copyOf(weights, newCapacity);
+        epochDays = Arrays.copyOf(epochDays, newCapacity);
+    }
+}
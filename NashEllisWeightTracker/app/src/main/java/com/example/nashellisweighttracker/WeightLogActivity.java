@@ -2,94 +2,114 @@ package com.example.nashellisweighttracker;
 
 import android.Manifest;
 import android.content.pm.PackageManager;
-import android.database.Cursor;
-import android.os.AsyncTask;
+import android.net.Uri;
 import android.os.Bundle;
-import android.telephony.SmsManager;
 import android.text.InputType;
+import android.widget.Button;
 import android.widget.EditText;
 import android.widget.TextView;
 import android.widget.Toast;
 
+import androidx.activity.result.ActivityResultLauncher;
+import androidx.activity.result.contract.ActivityResultContracts;
+import androidx.annotation.NonNull;
 import androidx.appcompat.app.AlertDialog;
 import androidx.appcompat.app.AppCompatActivity;
 import androidx.core.app.ActivityCompat;
 import androidx.core.content.ContextCompat;
+import androidx.lifecycle.ViewModelProvider;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.google.android.material.floatingactionbutton.FloatingActionButton;
 
-import java.text.SimpleDateFormat;
-import java.util.ArrayList;
-import java.util.Date;
 import java.util.List;
-import java.util.Locale;
 
 public class WeightLogActivity extends AppCompatActivity {
 
     private TextView tvGoalWeight;
+    private TextView tvWeightSummary;
     private RecyclerView rvWeightEntries;
     private FloatingActionButton fabAddWeight;
+    private Button btnImportCsv;
+    private Button btnExportCsv;
     private WeightLogAdapter adapter;
-    private List<String> weightEntries;
     private int goalWeight = 170; // Default
     private static final int REQUEST_SMS_PERMISSION = 101;
 
-    private SQLiteHelper dbHelper;
-    private String username;
-    private int userId;
+    // CSV files are picked through the Storage Access Framework
+    private final ActivityResultLauncher<String> exportLauncher =
+            registerForActivityResult(new ActivityResultContracts.CreateDocument("text/csv"), this::exportCsv);
+    private final ActivityResultLauncher<String[]> importLauncher =
+            registerForActivityResult(new ActivityResultContracts.OpenDocument(), this::importCsv);
+
+    // Entries, goal weight and summary are cached by WeightRepository across opens and rotations
+    private WeightLogViewModel viewModel;
+
+    // Drops repository callbacks that arrive after this Activity is destroyed
+    private TaskScope uiScope;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
         setContentView(R.layout.activity_weight_log);
 
-        // Initialize DB helper and UI components
-        dbHelper = new SQLiteHelper(this);
+        // Initialize UI components
         tvGoalWeight = findViewById(R.id.tvGoalWeight);
+        tvWeightSummary = findViewById(R.id.tvWeightSummary);
         rvWeightEntries = findViewById(R.id.rvWeightEntries);
         fabAddWeight = findViewById(R.id.fabAddWeight);
+        btnImportCsv = findViewById(R.id.btnImportCsv);
+        btnExportCsv = findViewById(R.id.btnExportCsv);
 
-        // Get logged-in username
-        username = getIntent().getStringExtra("username");
-        if (username == null) {
+        // Logged-in user and goal weight, resolved by LoginActivity
+        UserSession session = UserSession.fromIntent(getIntent());
+        if (session == null) {
             Toast.makeText(this, "Error: No user found.", Toast.LENGTH_SHORT).show();
             finish();
             return;
         }
 
-        // Fetch userId from DB
-        userId = dbHelper.getUserId(username);
-
-        // Load goal weight
-        goalWeight = (int) dbHelper.getGoalWeight(userId);
-        updateGoalWeightText();
-
-        // Load previous weight entries
-        weightEntries = new ArrayList<>();
-        Cursor cursor = dbHelper.getAllWeightEntries(userId);
-
-        // Ensures weights always load in same order as they were entered
-        if (cursor.moveToFirst()) {
-            do {
-                float weight = cursor.getFloat(cursor.getColumnIndexOrThrow("weight"));
-                String date = cursor.getString(cursor.getColumnIndexOrThrow("date"));
-                weightEntries.add(weight + " lbs - " + date);
-            } while (cursor.moveToNext());
-        }
-        cursor.close();
+        uiScope = TaskScope.bind(this);
+        viewModel = new ViewModelProvider(this).get(WeightLogViewModel.class);
+        viewModel.init(session);
 
         // Setup RecyclerView
-        adapter = new WeightLogAdapter(weightEntries);
-        rvWeightEntries.setLayoutManager(new LinearLayoutManager(this));
+        adapter = new WeightLogAdapter(this::showEditWeightDialog);
+        LinearLayoutManager layoutManager = new LinearLayoutManager(this);
+        rvWeightEntries.setLayoutManager(layoutManager);
         rvWeightEntries.setAdapter(adapter);
 
+        // Load further pages as the user nears the end of the list
+        rvWeightEntries.addOnScrollListener(new RecyclerView.OnScrollListener() {
+            @Override
+            public void onScrolled(@NonNull RecyclerView recyclerView, int dx, int dy) {
+                int lastVisible = layoutManager.findLastVisibleItemPosition();
+                if (lastVisible >= adapter.getItemCount() - WeightRepository.PAGE_SIZE / 2) {
+                    viewModel.loadNextPage();
+                }
+            }
+        });
+
+        // Observe cached data; the first page and goal weight are loaded on first use
+        viewModel.getEntries().observe(this, adapter::submitList);
+        viewModel.getGoalWeight().observe(this, goal -> {
+            goalWeight = (int) (float) goal;
+            updateGoalWeightText();
+        });
+        viewModel.getLatestWeight().observe(this, latest -> updateSummaryText());
+        viewModel.getRecentStats().observe(this, stats -> updateSummaryText());
+
         // Add new weight
         fabAddWeight.setOnClickListener(view -> showAddWeightDialog());
 
         // Change goal weight
         tvGoalWeight.setOnClickListener(view -> showChangeGoalWeightDialog());
+
+        // Move weight history in and out as CSV
+        btnExportCsv.setOnClickListener(view -> exportLauncher.launch("weight_history.csv"));
+        btnImportCsv.setOnClickListener(view -> importLauncher.launch(
+                new String[]{"text/csv", "text/comma-separated-values", "text/plain"}));
     }
 
     private void showAddWeightDialog() {
@@ -105,18 +125,9 @@ public class WeightLogActivity extends AppCompatActivity {
                     if (!weightText.isEmpty()) {
                         try {
                             float currentWeight = Float.parseFloat(weightText);
-                            String entry = weightText + " lbs - " + getCurrentDate();
-
-                            weightEntries.add(entry);
-                            adapter.notifyDataSetChanged();
-
-                            // Save to DB
-                            dbHelper.insertWeight(userId, currentWeight, getCurrentDate());
 
-                            // Check for goal reached
-                            if (currentWeight == goalWeight) {
-                                sendSMSNotification();
-                            }
+                            // Save to DB, the repository adds it to the cached log and checks goal rules
+                            viewModel.addWeight(currentWeight, EpochDays.today(), uiScope.guard(this::onGoalEvents));
                         } catch (NumberFormatException e) {
                             Toast.makeText(this, "Invalid number", Toast.LENGTH_SHORT).show();
                         }
@@ -128,6 +139,84 @@ public class WeightLogActivity extends AppCompatActivity {
                 .show();
     }
 
+    private void onGoalEvents(List<GoalEvent> events) {
+        for (GoalEvent event : events) {
+            switch (event.getType()) {
+                case GOAL_REACHED:
+                    showToast("Goal reached! Sending SMS notification");
+                    requestSmsPermission();
+                    break;
+                case MILESTONE:
+                    showToast("You're " + event.getValue() + "% of the way to your goal!");
+                    requestSmsPermission();
+                    break;
+                case STREAK:
+                    showToast(event.getValue() + "-day logging streak!");
+                    break;
+            }
+        }
+    }
+
+    private void showEditWeightDialog(long entryId) {
+        WeightEntryList entries = adapter.getEntries();
+        int index = entries.indexOfId(entryId);
+        if (index < 0) return;
+        final int epochDay = entries.getEpochDay(index);
+
+        final EditText weightInput = new EditText(WeightLogActivity.this);
+        weightInput.setInputType(InputType.TYPE_CLASS_NUMBER | InputType.TYPE_NUMBER_FLAG_DECIMAL);
+        weightInput.setText(String.valueOf(entries.getWeight(index)));
+
+        AlertDialog.Builder builder = new AlertDialog.Builder(WeightLogActivity.this)
+                .setTitle("Edit Weight")
+                .setView(weightInput)
+                .setNeutralButton("Delete", (dialog, which) -> viewModel.deleteWeight(entryId))
+                .setNegativeButton("Cancel", null);
+
+        // Entries whose date was lost in migration can only be deleted
+        if (epochDay != WeightEntryList.UNKNOWN_DAY) {
+            builder.setPositiveButton("Save", (dialog, which) -> {
+                try {
+                    float newWeight = Float.parseFloat(weightInput.getText().toString());
+                    viewModel.updateWeight(entryId, newWeight, epochDay);
+                } catch (NumberFormatException e) {
+                    Toast.makeText(this, "Invalid number", Toast.LENGTH_SHORT).show();
+                }
+            });
+        }
+        builder.show();
+    }
+
+    // Latest weight and recent average, aggregated in SQL rather than over the loaded entries
+    private void updateSummaryText() {
+        Float latest = viewModel.getLatestWeight().getValue();
+        WeightStats stats = viewModel.getRecentStats().getValue();
+        if (latest == null || stats == null) return;
+
+        if (latest < 0) {
+            tvWeightSummary.setText(R.string.weight_summary_empty);
+        } else if (stats.getCount() == 0) {
+            tvWeightSummary.setText(getString(R.string.weight_summary_latest, latest));
+        } else {
+            tvWeightSummary.setText(getString(R.string.weight_summary,
+                    latest, WeightRepository.SUMMARY_WINDOW_DAYS, stats.getAverage()));
+        }
+    }
+
+    private void exportCsv(Uri uri) {
+        if (uri == null) return;
+        viewModel.exportCsv(getContentResolver(), uri, uiScope.guard(this::showToast));
+    }
+
+    private void importCsv(Uri uri) {
+        if (uri == null) return;
+        viewModel.importCsv(getContentResolver(), uri, uiScope.guard(this::showToast));
+    }
+
+    private void showToast(String message) {
+        Toast.makeText(this, message, Toast.LENGTH_SHORT).show();
+    }
+
     private void showChangeGoalWeightDialog() {
         final EditText goalWeightInput = new EditText(WeightLogActivity.this);
         goalWeightInput.setInputType(InputType.TYPE_CLASS_NUMBER);
@@ -141,9 +230,7 @@ public class WeightLogActivity extends AppCompatActivity {
                     String newGoalWeightText = goalWeightInput.getText().toString();
                     if (!newGoalWeightText.isEmpty()) {
                         try {
-                            goalWeight = Integer.parseInt(newGoalWeightText);
-                            dbHelper.updateGoalWeight(userId, goalWeight);
-                            updateGoalWeightText();
+                            viewModel.setGoalWeight(Integer.parseInt(newGoalWeightText));
                             Toast.makeText(this, "Goal weight updated", Toast.LENGTH_SHORT).show();
                         } catch (NumberFormatException e) {
                             Toast.makeText(this, "Invalid weight", Toast.LENGTH_SHORT).show();
@@ -161,51 +248,20 @@ public class WeightLogActivity extends AppCompatActivity {
         tvGoalWeight.setText(label);
     }
 
-    private String getCurrentDate() {
-        SimpleDateFormat sdf = new SimpleDateFormat("MMM dd, yyyy", Locale.getDefault());
-        return sdf.format(new Date());
-    }
-
-    private void sendSMSNotification() {
+    // The repository has already queued the SMS; SmsOutboxWorker retries with backoff, so a later grant still sends it
+    private void requestSmsPermission() {
         if (ContextCompat.checkSelfPermission(this, Manifest.permission.SEND_SMS)
                 != PackageManager.PERMISSION_GRANTED) {
             ActivityCompat.requestPermissions(this, new String[]{Manifest.permission.SEND_SMS}, REQUEST_SMS_PERMISSION);
-        } else {
-            new SendSmsAsyncTask().execute();
-        }
-    }
-
-    private class SendSmsAsyncTask extends AsyncTask<Void, Void, Void> {
-        @Override
-        protected Void doInBackground(Void... voids) {
-            SmsManager smsManager = SmsManager.getDefault();
-            String phoneNumber = "1234567890"; // Replace this
-            String message = "🎉 Congrats! You've reached your goal weight of " + goalWeight + " lbs!";
-            smsManager.sendTextMessage(phoneNumber, null, message, null, null);
-            return null;
-        }
-
-        @Override
-        protected void onPostExecute(Void aVoid) {
-            Toast.makeText(WeightLogActivity.this, "SMS sent successfully!", Toast.LENGTH_SHORT).show();
         }
     }
 
     @Override
     public void onRequestPermissionsResult(int requestCode, String[] permissions, int[] grantResults) {
         super.onRequestPermissionsResult(requestCode, permissions, grantResults);
-        if (requestCode == REQUEST_SMS_PERMISSION) {
-            if (grantResults.length > 0 && grantResults[0] == PackageManager.PERMISSION_GRANTED) {
-                sendSMSNotification();
-            } else {
-                Toast.makeText(this, "SMS permission denied", Toast.LENGTH_SHORT).show();
-            }
+        if (requestCode == REQUEST_SMS_PERMISSION
+                && (grantResults.length == 0 || grantResults[0] != PackageManager.PERMISSION_GRANTED)) {
+            Toast.makeText(this, "SMS permission denied", Toast.LENGTH_SHORT).show();
         }
     }
-
-    @Override
-    protected void onDestroy() {
-        dbHelper.close();
-        super.onDestroy();
-    }
 }
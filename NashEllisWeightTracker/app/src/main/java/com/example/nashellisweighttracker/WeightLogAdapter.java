@@ -6,16 +6,58 @@ import android.view.ViewGroup;
 import android.widget.TextView;
 
 import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.DiffUtil;
 import androidx.recyclerview.widget.RecyclerView;
 
-import java.util.List;
-
+/**
+ * Shows a WeightEntryList with stable ids.
+ *
+ * New lists are diffed against the current one on a background thread, the same way
+ * AsyncListDiffer does for List-backed adapters, so inserts, edits and deletes only
+ * rebind the rows that changed. Submitted lists must not be modified afterwards.
+ */
 public class WeightLogAdapter extends RecyclerView.Adapter<WeightLogAdapter.ViewHolder> {
 
-    private List<String> weightList;
+    public interface OnEntryClickListener {
+        void onEntryClick(long entryId);
+    }
+
+    private final AppExecutors executors = AppExecutors.getInstance();
+    private final OnEntryClickListener clickListener;
+    private WeightEntryList entries = new WeightEntryList(0);
+    private int generation = 0; // drops diff results for lists that were superseded
 
-    public WeightLogAdapter(List<String> weightList) {
-        this.weightList = weightList;
+    public WeightLogAdapter(OnEntryClickListener clickListener) {
+        this.clickListener = clickListener;
+        setHasStableIds(true);
+    }
+
+    public WeightEntryList getEntries() {
+        return entries;
+    }
+
+    // Must be called on the main thread
+    public void submitList(WeightEntryList newEntries) {
+        if (newEntries == entries) return;
+        final int submitGeneration = ++generation;
+        final WeightEntryList oldEntries = entries;
+
+        // Nothing to diff against, so the change is a single range notification
+        if (oldEntries.size() == 0 || newEntries.size() == 0) {
+            entries = newEntries;
+            if (oldEntries.size() > 0) notifyItemRangeRemoved(0, oldEntries.size());
+            if (newEntries.size() > 0) notifyItemRangeInserted(0, newEntries.size());
+            return;
+        }
+
+        executors.background().execute(() -> {
+            DiffUtil.DiffResult result = DiffUtil.calculateDiff(new EntryDiff(oldEntries, newEntries), false);
+            executors.mainThread().execute(() -> {
+                if (submitGeneration != generation) return;
+                entries = newEntries;
+                result.dispatchUpdatesTo(this);
+            });
+        });
     }
 
     @NonNull
@@ -23,17 +65,29 @@ public class WeightLogAdapter extends RecyclerView.Adapter<WeightLogAdapter.View
     public ViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
         View view = LayoutInflater.from(parent.getContext())
                 .inflate(android.R.layout.simple_list_item_1, parent, false);
-        return new ViewHolder(view);
+        ViewHolder holder = new ViewHolder(view);
+        view.setOnClickListener(v -> {
+            if (holder.getItemId() != RecyclerView.NO_ID) clickListener.onEntryClick(holder.getItemId());
+        });
+        return holder;
     }
 
     @Override
     public void onBindViewHolder(@NonNull ViewHolder holder, int position) {
-        holder.textView.setText(weightList.get(position));
+        // Text is formatted only for rows that are actually bound
+        int epochDay = entries.getEpochDay(position);
+        String date = epochDay == WeightEntryList.UNKNOWN_DAY ? "Unknown date" : EpochDays.format(epochDay);
+        holder.textView.setText(entries.getWeight(position) + " lbs - " + date);
     }
 
     @Override
     public int getItemCount() {
-        return weightList.size();
+        return entries.size();
+    }
+
+    @Override
+    public long getItemId(int position) {
+        return entries.getId(position);
     }
 
     public static class ViewHolder extends RecyclerView.ViewHolder {
@@ -44,4 +98,35 @@ public class WeightLogAdapter extends RecyclerView.Adapter<WeightLogAdapter.View
             textView = view.findViewById(android.R.id.text1);
         }
     }
+
+    private static class EntryDiff extends DiffUtil.Callback {
+        private final WeightEntryList oldEntries;
+        private final WeightEntryList newEntries;
+
+        EntryDiff(WeightEntryList oldEntries, WeightEntryList newEntries) {
+            this.oldEntries = oldEntries;
+            this.newEntries = newEntries;
+        }
+
+        @Override
+        public int getOldListSize() {
+            return oldEntries.size();
+        }
+
+        @Override
+        public int getNewListSize() {
+            return newEntries.size();
+        }
+
+        @Override
+        public boolean areItemsTheSame(int oldPosition, int newPosition) {
+            return oldEntries.getId(oldPosition) == newEntries.getId(newPosition);
+        }
+
+        @Override
+        public boolean areContentsTheSame(int oldPosition, int newPosition) {
+            return oldEntries.getWeight(oldPosition) == newEntries.getWeight(newPosition)
+                    && oldEntries.getEpochDay(oldPosition) == newEntries.getEpochDay(newPosition);
+        }
+    }
 }
\ No newline at end of file
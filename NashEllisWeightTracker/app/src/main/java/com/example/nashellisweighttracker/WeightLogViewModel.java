@@ -0,0 +1,78 @@
+package com.example.nashellisweighttracker;
+
+import android.app.Application;
+import android.content.ContentResolver;
+import android.net.Uri;
+
+import androidx.annotation.NonNull;
+import androidx.lifecycle.AndroidViewModel;
+import androidx.lifecycle.LiveData;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Holds the logged-in user's weight log across configuration changes.
+ * Data comes from the process-wide WeightRepository cache.
+ */
+public class WeightLogViewModel extends AndroidViewModel {
+
+    private final WeightRepository repository;
+    private int userId = -1;
+
+    public WeightLogViewModel(@NonNull Application application) {
+        super(application);
+        repository = WeightRepository.getInstance(application);
+    }
+
+    // Called from onCreate; only the first call after the ViewModel is created has an effect
+    public void init(UserSession session) {
+        if (userId != -1) return;
+        userId = session.getUserId();
+        repository.startSession(session);
+    }
+
+    public LiveData<WeightEntryList> getEntries() {
+        return repository.getEntries(userId);
+    }
+
+    public LiveData<Float> getGoalWeight() {
+        return repository.getGoalWeight(userId);
+    }
+
+    public LiveData<Float> getLatestWeight() {
+        return repository.getLatestWeight(userId);
+    }
+
+    public LiveData<WeightStats> getRecentStats() {
+        return repository.getRecentStats(userId);
+    }
+
+    public void loadNextPage() {
+        repository.loadNextPage(userId);
+    }
+
+    public void addWeight(float weight, int epochDay, Consumer<List<GoalEvent>> onGoalEvents) {
+        repository.addWeight(userId, weight, epochDay, onGoalEvents);
+    }
+
+    public void updateWeight(long entryId, float weight, int epochDay) {
+        repository.updateWeight(userId, entryId, weight, epochDay);
+    }
+
+    public void deleteWeight(long entryId) {
+        repository.deleteWeight(userId, entryId);
+    }
+
+    public void setGoalWeight(float goalWeight) {
+        repository.setGoalWeight(userId, goalWeight);
+    }
+
+    public void exportCsv(ContentResolver resolver, Uri uri, Consumer<String> onDone) {
+        repository.exportCsv(userId, resolver, uri, onDone);
+    }
+
+    public void importCsv(ContentResolver resolver, Uri uri, Consumer<String> onDone) {
+        repository.importCsv(userId, resolver, uri, onDone);
+    }
+}
@@ -0,0 +1,324 @@
+package com.example.nashellisweighttracker;
+
+import android.content.ContentResolver;
+import android.content.Context;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.net.Uri;
+
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MutableLiveData;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+
+/**
+ * Single source of weight data for the UI, layered over SQLiteHelper.
+ *
+ * Each user's loaded entries, goal weight and summary are cached in memory for the
+ * life of the process and exposed as LiveData. Writes go to the database on
+ * the AppExecutors database thread and are then applied to the cache, so reopening
+ * the log or rotating the screen does no database I/O.
+ *
+ * All public methods must be called on the main thread.
+ */
+public class WeightRepository {
+
+    static final int PAGE_SIZE = 50;
+    static final int SUMMARY_WINDOW_DAYS = 30;
+    static final String SMS_PHONE_NUMBER = "1234567890"; // Replace this
+
+    private static WeightRepository instance;
+
+    private final SQLiteHelper dbHelper;
+    private final WeightCsv weightCsv;
+    private final NotificationDispatcher notificationDispatcher;
+    private final Executor dbExecutor;
+    private final Executor mainThread;
+    private final Map<Integer, UserCache> caches = new HashMap<>();
+
+    // Per-user cache; paging fields are only touched on the main thread
+    private static class UserCache {
+        final MutableLiveData<WeightEntryList> entries = new MutableLiveData<>(new WeightEntryList(0));
+        final MutableLiveData<Float> goalWeight = new MutableLiveData<>();
+        final MutableLiveData<Float> latestWeight = new MutableLiveData<>();
+        final MutableLiveData<WeightStats> recentStats = new MutableLiveData<>();
+        long lastLoadedId = 0;
+        boolean isLoadingPage = false;
+        boolean allPagesLoaded = false;
+        boolean goalRequested = false;
+        boolean summaryRequested = false;
+    }
+
+    public static synchronized WeightRepository getInstance(Context context) {
+        if (instance == null) {
+            Context appContext = context.getApplicationContext();
+            instance = new WeightRepository(appContext, SQLiteHelper.getInstance(appContext),
+                    AppExecutors.getInstance());
+        }
+        return instance;
+    }
+
+    WeightRepository(Context appContext, SQLiteHelper dbHelper, AppExecutors executors) {
+        this.dbHelper = dbHelper;
+        this.dbExecutor = executors.diskIO();
+        this.mainThread = executors.mainThread();
+        this.weightCsv = new WeightCsv(dbHelper);
+        this.notificationDispatcher = new NotificationDispatcher(appContext, dbHelper,
+                NotificationDispatcher.DEFAULT_WINDOW_MILLIS);
+    }
+
+    // Seeds the cache with what was read at login, so the goal weight needs no query
+    public void startSession(UserSession session) {
+        UserCache cache = cacheFor(session.getUserId());
+        if (cache.goalWeight.getValue() == null) {
+            cache.goalRequested = true;
+            cache.goalWeight.setValue(session.getGoalWeight());
+        }
+    }
+
+    // Entries loaded so far, oldest first. The first page is fetched on first use.
+    public LiveData<WeightEntryList> getEntries(int userId) {
+        UserCache cache = cacheFor(userId);
+        if (cache.lastLoadedId == 0 && !cache.allPagesLoaded) loadNextPage(userId);
+        return cache.entries;
+    }
+
+    public LiveData<Float> getGoalWeight(int userId) {
+        UserCache cache = cacheFor(userId);
+        if (!cache.goalRequested) {
+            cache.goalRequested = true;
+            dbExecutor.execute(() -> {
+                float goal = dbHelper.getGoalWeight(userId);
+                mainThread.execute(() -> {
+                    // A goal set while the load was in flight wins
+                    if (cache.goalWeight.getValue() == null) cache.goalWeight.setValue(goal);
+                });
+            });
+        }
+        return cache.goalWeight;
+    }
+
+    // Latest weight, or -1 if the user has no entries
+    public LiveData<Float> getLatestWeight(int userId) {
+        requestSummary(userId);
+        return cacheFor(userId).latestWeight;
+    }
+
+    // Stats over the last SUMMARY_WINDOW_DAYS days
+    public LiveData<WeightStats> getRecentStats(int userId) {
+        requestSummary(userId);
+        return cacheFor(userId).recentStats;
+    }
+
+    // Keyset pagination on the weights id, see SQLiteHelper.getWeightEntriesPage
+    public void loadNextPage(int userId) {
+        UserCache cache = cacheFor(userId);
+        if (cache.isLoadingPage || cache.allPagesLoaded) return;
+        cache.isLoadingPage = true;
+
+        final long afterId = cache.lastLoadedId;
+        dbExecutor.execute(() -> {
+            WeightEntryList page = new WeightEntryList(PAGE_SIZE);
+            long pageLastId = afterId;
+            try (Cursor cursor = dbHelper.getWeightEntriesPage(userId, afterId, PAGE_SIZE)) {
+                int idIndex = cursor.getColumnIndexOrThrow("id");
+                int weightIndex = cursor.getColumnIndexOrThrow("weight");
+                int dateIndex = cursor.getColumnIndexOrThrow("date");
+                while (cursor.moveToNext()) {
+                    pageLastId = cursor.getLong(idIndex);
+                    int epochDay = cursor.isNull(dateIndex) ? WeightEntryList.UNKNOWN_DAY : cursor.getInt(dateIndex);
+                    page.add(pageLastId, cursor.getFloat(weightIndex), epochDay);
+                }
+            }
+
+            final long newLastId = pageLastId;
+            mainThread.execute(() -> {
+                cache.isLoadingPage = false;
+                cache.lastLoadedId = newLastId;
+                cache.allPagesLoaded = page.size() < PAGE_SIZE;
+                if (page.size() > 0) {
+                    WeightEntryList next = cache.entries.getValue().copy();
+                    next.addAll(page);
+                    cache.entries.setValue(next);
+                }
+            });
+        });
+    }
+
+    // onGoalEvents is called on the main thread with the goal rules the new entry fired, if any.
+    // Their SMS notifications are already in the outbox by then, so a closed screen cannot lose them.
+    public void addWeight(int userId, float weight, int epochDay, Consumer<List<GoalEvent>> onGoalEvents) {
+        UserCache cache = cacheFor(userId);
+        dbExecutor.execute(() -> {
+            long id;
+            List<GoalEvent> events;
+            // The entry, the goal rules' fired state and the queued SMS commit together
+            SQLiteDatabase db = dbHelper.getWritableDatabase();
+            db.beginTransaction();
+            try {
+                float previousLatest = dbHelper.getLatestWeight(userId);
+                id = dbHelper.insertWeight(userId, weight, epochDay);
+                events = id != -1
+                        ? evaluateGoals(userId, weight, epochDay, previousLatest)
+                        : Collections.emptyList();
+                db.setTransactionSuccessful();
+            } finally {
+                db.endTransaction();
+            }
+            mainThread.execute(() -> {
+                if (!events.isEmpty()) onGoalEvents.accept(events);
+                // If later pages are still unloaded the pager will reach the new row itself
+                if (id != -1 && cache.allPagesLoaded && id > cache.lastLoadedId) {
+                    WeightEntryList next = cache.entries.getValue().copy();
+                    next.add(id, weight, epochDay);
+                    cache.lastLoadedId = id;
+                    cache.entries.setValue(next);
+                }
+            });
+            refreshSummary(userId, cache);
+        });
+    }
+
+    public void updateWeight(int userId, long entryId, float weight, int epochDay) {
+        UserCache cache = cacheFor(userId);
+        dbExecutor.execute(() -> {
+            if (!dbHelper.updateWeight((int) entryId, weight, epochDay)) return;
+            mainThread.execute(() -> {
+                WeightEntryList next = cache.entries.getValue().copy();
+                int index = next.indexOfId(entryId);
+                if (index >= 0) {
+                    next.set(index, weight, epochDay);
+                    cache.entries.setValue(next);
+                }
+            });
+            refreshSummary(userId, cache);
+        });
+    }
+
+    public void deleteWeight(int userId, long entryId) {
+        UserCache cache = cacheFor(userId);
+        dbExecutor.execute(() -> {
+            if (!dbHelper.deleteWeight((int) entryId)) return;
+            mainThread.execute(() -> {
+                WeightEntryList next = cache.entries.getValue().copy();
+                int index = next.indexOfId(entryId);
+                if (index >= 0) {
+                    next.removeAt(index);
+                    cache.entries.setValue(next);
+                }
+            });
+            refreshSummary(userId, cache);
+        });
+    }
+
+    public void setGoalWeight(int userId, float goalWeight) {
+        cacheFor(userId).goalWeight.setValue(goalWeight);
+        dbExecutor.execute(() -> dbHelper.updateGoalWeight(userId, goalWeight));
+    }
+
+    public void exportCsv(int userId, ContentResolver resolver, Uri uri, Consumer<String> onDone) {
+        dbExecutor.execute(() -> {
+            String message;
+            try (OutputStream out = resolver.openOutputStream(uri)) {
+                if (out == null) throw new IOException("Could not open " + uri);
+                int count = weightCsv.exportTo(userId, new OutputStreamWriter(out, StandardCharsets.UTF_8));
+                message = "Exported " + count + " entries";
+            } catch (IOException e) {
+                message = "Export failed: " + e.getMessage();
+            }
+            final String result = message;
+            mainThread.execute(() -> onDone.accept(result));
+        });
+    }
+
+    public void importCsv(int userId, ContentResolver resolver, Uri uri, Consumer<String> onDone) {
+        UserCache cache = cacheFor(userId);
+        dbExecutor.execute(() -> {
+            String message;
+            try (InputStream in = resolver.openInputStream(uri)) {
+                if (in == null) throw new IOException("Could not open " + uri);
+                int count = weightCsv.importFrom(userId, new InputStreamReader(in, StandardCharsets.UTF_8));
+                message = "Imported " + count + " entries";
+            } catch (WeightCsv.ImportException e) {
+                // Say what was saved, so fixing the file and importing it again is not a surprise
+                message = "Imported " + e.getImportedCount() + " entries before line " + e.getLineNumber()
+                        + " failed: " + e.getReason();
+            } catch (IOException e) {
+                message = "Import stopped: " + e.getMessage();
+            }
+            final String result = message;
+            mainThread.execute(() -> {
+                // Imported rows follow the loaded ones, so let the pager pick them up
+                if (cache.allPagesLoaded) {
+                    cache.allPagesLoaded = false;
+                    loadNextPage(userId);
+                }
+                onDone.accept(result);
+            });
+            refreshSummary(userId, cache);
+        });
+    }
+
+    // Runs on the database thread. A new goal is measured from the weight logged before this entry.
+    private List<GoalEvent> evaluateGoals(int userId, float weight, int epochDay, float previousLatest) {
+        float goal = dbHelper.getGoalWeight(userId);
+        float start = previousLatest >= 0 ? previousLatest : weight;
+        GoalProgress progress = GoalRuleEngine.progressFor(dbHelper.getGoalProgress(userId), goal, start);
+        List<GoalEvent> events = GoalRuleEngine.evaluate(progress, weight, epochDay);
+        dbHelper.saveGoalProgress(userId, progress);
+        for (GoalEvent event : events) {
+            String message = smsMessage(event, goal);
+            if (message != null) notificationDispatcher.dispatch(userId, SMS_PHONE_NUMBER, event.getKey(), message);
+        }
+        return events;
+    }
+
+    // Delivered by SmsOutboxWorker, with retries; repeats of an event's key are dropped
+    private static String smsMessage(GoalEvent event, float goal) {
+        switch (event.getType()) {
+            case GOAL_REACHED:
+                return "🎉 Congrats! You've reached your goal weight of " + event.getValue() + " lbs!";
+            case MILESTONE:
+                return "You're " + event.getValue() + "% of the way to your goal weight of " + (int) goal + " lbs!";
+            default:
+                return null;
+        }
+    }
+
+    private void requestSummary(int userId) {
+        UserCache cache = cacheFor(userId);
+        if (cache.summaryRequested) return;
+        cache.summaryRequested = true;
+        dbExecutor.execute(() -> refreshSummary(userId, cache));
+    }
+
+    // Runs on the database thread
+    private void refreshSummary(int userId, UserCache cache) {
+        float latest = dbHelper.getLatestWeight(userId);
+        WeightStats stats = dbHelper.getStats(userId, SUMMARY_WINDOW_DAYS);
+        mainThread.execute(() -> {
+            cache.latestWeight.setValue(latest);
+            cache.recentStats.setValue(stats);
+        });
+    }
+
+    private UserCache cacheFor(int userId) {
+        UserCache cache = caches.get(userId);
+        if (cache == null) {
+            cache = new UserCache();
+            caches.put(userId, cache);
+        }
+        return cache;
+    }
+}
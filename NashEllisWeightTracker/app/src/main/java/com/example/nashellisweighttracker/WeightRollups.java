@@ -0,0 +1,138 @@
+package com.example.nashellisweighttracker;
+
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteStatement;
+
+import java.io.Closeable;
+
+/**
+ * Maintains the weight_rollups table: count, sum, min and max of each user's weights
+ * per day, week and month.
+ *
+ * Callers run these methods inside the same transaction as the change to the weights
+ * table, so the rollups never disagree with the raw entries. Inserts are folded in
+ * directly; updates and deletes recompute only the buckets they touched, because a
+ * minimum or maximum cannot be taken back out of an aggregate.
+ */
+final class WeightRollups implements Closeable {
+
+    static final int PERIOD_DAY = 0;
+    static final int PERIOD_WEEK = 1;
+    static final int PERIOD_MONTH = 2;
+    private static final int[] PERIODS = {PERIOD_DAY, PERIOD_WEEK, PERIOD_MONTH};
+
+    static final String TABLE_ROLLUPS = "weight_rollups";
+    static final String CREATE_TABLE = "CREATE TABLE IF NOT EXISTS " + TABLE_ROLLUPS + " (" +
+            "user_id INTEGER NOT NULL, period INTEGER NOT NULL, bucket INTEGER NOT NULL, " +
+            "count INTEGER NOT NULL, sum REAL NOT NULL, min REAL NOT NULL, max REAL NOT NULL, " +
+            "PRIMARY KEY (user_id, period, bucket)) WITHOUT ROWID";
+
+    static final String QUERY_ROLLUPS = "SELECT bucket, count, sum / count AS average, min, max FROM " +
+            TABLE_ROLLUPS + " WHERE user_id = ? AND period = ? AND bucket BETWEEN ? AND ? ORDER BY bucket ASC";
+
+    private static final String UPDATE_ADD = "UPDATE " + TABLE_ROLLUPS +
+            " SET count = count + 1, sum = sum + ?, min = MIN(min, ?), max = MAX(max, ?)" +
+            " WHERE user_id = ? AND period = ? AND bucket = ?";
+    private static final String INSERT_ROLLUP = "INSERT OR REPLACE INTO " + TABLE_ROLLUPS +
+            " (user_id, period, bucket, count, sum, min, max) VALUES (?, ?, ?, ?, ?, ?, ?)";
+    private static final String QUERY_BUCKET_FROM_WEIGHTS = "SELECT COUNT(weight), SUM(weight), " +
+            "MIN(weight), MAX(weight) FROM weights WHERE user_id = ? AND date BETWEEN ? AND ?";
+
+    private final SQLiteDatabase db;
+    private SQLiteStatement updateAdd;
+    private SQLiteStatement insertRollup;
+
+    WeightRollups(SQLiteDatabase db) {
+        this.db = db;
+    }
+
+    // Folds a newly inserted weight into its day, week and month buckets
+    void add(int userId, int epochDay, float weight) {
+        if (updateAdd == null) updateAdd = db.compileStatement(UPDATE_ADD);
+        for (int period : PERIODS) {
+            int bucket = bucketOf(period, epochDay);
+            updateAdd.clearBindings();
+            updateAdd.bindDouble(1, weight);
+            updateAdd.bindDouble(2, weight);
+            updateAdd.bindDouble(3, weight);
+            updateAdd.bindLong(4, userId);
+            updateAdd.bindLong(5, period);
+            updateAdd.bindLong(6, bucket);
+            if (updateAdd.executeUpdateDelete() == 0) {
+                writeBucket(userId, period, bucket, 1, weight, weight, weight);
+            }
+        }
+    }
+
+    // Rebuilds the day, week and month buckets containing epochDay from the weights table
+    void recompute(int userId, int epochDay) {
+        for (int period : PERIODS) {
+            int bucket = bucketOf(period, epochDay);
+            try (Cursor cursor = db.rawQuery(QUERY_BUCKET_FROM_WEIGHTS, new String[]{
+                    String.valueOf(userId),
+                    String.valueOf(firstDayOf(period, bucket)),
+                    String.valueOf(firstDayOf(period, bucket + 1) - 1)})) {
+                cursor.moveToFirst();
+                int count = cursor.getInt(0);
+                if (count == 0) {
+                    db.delete(TABLE_ROLLUPS, "user_id = ? AND period = ? AND bucket = ?", new String[]{
+                            String.valueOf(userId), String.valueOf(period), String.valueOf(bucket)});
+                } else {
+                    writeBucket(userId, period, bucket, count,
+                            cursor.getDouble(1), cursor.getDouble(2), cursor.getDouble(3));
+                }
+            }
+        }
+    }
+
+    void deleteAll(int userId) {
+        db.delete(TABLE_ROLLUPS, "user_id = ?", new String[]{String.valueOf(userId)});
+    }
+
+    private void writeBucket(int userId, int period, int bucket, int count, double sum, double min, double max) {
+        if (insertRollup == null) insertRollup = db.compileStatement(INSERT_ROLLUP);
+        insertRollup.clearBindings();
+        insertRollup.bindLong(1, userId);
+        insertRollup.bindLong(2, period);
+        insertRollup.bindLong(3, bucket);
+        insertRollup.bindLong(4, count);
+        insertRollup.bindDouble(5, sum);
+        insertRollup.bindDouble(6, min);
+        insertRollup.bindDouble(7, max);
+        insertRollup.executeInsert();
+    }
+
+    @Override
+    public void close() {
+        if (updateAdd != null) updateAdd.close();
+        if (insertRollup != null) insertRollup.close();
+    }
+
+    // Weeks start on Monday; 1970-01-01 was a Thursday, hence the offset of 3 days
+    static int bucketOf(int period, int epochDay) {
+        switch (period) {
+            case PERIOD_DAY:
+                return epochDay;
+            case PERIOD_WEEK:
+                return Math.floorDiv(epochDay + 3, 7);
+            case PERIOD_MONTH:
+                return EpochDays.monthOf(epochDay);
+            default:
+                throw new IllegalArgumentException("Unknown rollup period " + period);
+        }
+    }
+
+    static int firstDayOf(int period, int bucket) {
+        switch (period) {
+            case PERIOD_DAY:
+                return bucket;
+            case PERIOD_WEEK:
+                return bucket * 7 - 3;
+            case PERIOD_MONTH:
+                return EpochDays.firstDayOfMonth(bucket);
+            default:
+                throw new IllegalArgumentException("Unknown rollup period " + period);
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.nashellisweighttracker;
+
+/**
+ * Aggregates over a user's weight entries, computed in SQL by SQLiteHelper.getStats.
+ */
+public class WeightStats {
+
+    private final int count;
+    private final float min;
+    private final float max;
+    private final float average;
+
+    public WeightStats(int count, float min, float max, float average) {
+        this.count = count;
+        this.min = min;
+        this.max = max;
+        this.average = average;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    // min, max and average are 0 when count is 0
+    public float getMin() {
+        return min;
+    }
+
+    public float getMax() {
+        return max;
+    }
+
+    public float getAverage() {
+        return average;
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.nashellisweighttracker;
+
+import android.app.Application;
+import android.os.StrictMode;
+
+/**
+ * Turns on StrictMode in debug builds. Database and file work belongs on
+ * AppExecutors.diskIO(), so any disk access left on the main thread crashes
+ * the debug app instead of showing up later as jank.
+ */
+public class WeightTrackerApplication extends Application {
+
+    @Override
+    public void onCreate() {
+        super.onCreate();
+        if (BuildConfig.DEBUG) enableStrictMode();
+    }
+
+    private static void enableStrictMode() {
+        StrictMode.setThreadPolicy(new StrictMode.ThreadPolicy.Builder()
+                .detectDiskReads()
+                .detectDiskWrites()
+                .detectCustomSlowCalls()
+                .penaltyLog()
+                .penaltyDeath()
+                .build());
+        // Cursors and statements that are never closed are only logged
+        StrictMode.setVmPolicy(new StrictMode.VmPolicy.Builder()
+                .detectLeakedSqlLiteObjects()
+                .detectLeakedClosableObjects()
+                .penaltyLog()
+                .build());
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.nashellisweighttracker;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import org.junit.Test;
+
+import java.text.ParseException;
+import java.util.TimeZone;
+
+public class EpochDaysTest {
+
+    @Test
+    public void isoDatesRoundTrip() throws ParseException {
+        assertEquals(0, EpochDays.parseIso("1970-01-01"));
+        assertEquals(19723, EpochDays.parseIso("2024-01-01"));
+        assertEquals("2024-01-01", EpochDays.formatIso(19723));
+    }
+
+    @Test
+    public void legacyDatesAreParsed() {
+        assertEquals(Integer.valueOf(19727), EpochDays.parseLegacy("Jan 05, 2024"));
+        assertNull(EpochDays.parseLegacy("not a date"));
+        assertNull(EpochDays.parseLegacy(null));
+    }
+
+    @Test
+    public void monthsCountFromJanuary1970() {
+        assertEquals(0, EpochDays.monthOf(0));
+        assertEquals(648, EpochDays.monthOf(19723)); // January 2024
+        assertEquals(19723, EpochDays.firstDayOfMonth(648));
+        assertEquals(19754, EpochDays.firstDayOfMonth(649)); // February 2024
+    }
+
+    @Test
+    public void fromMillisUsesLocalDay() {
+        // 2024-01-01T02:00Z is still Dec 31 in New York
+        long millis = EpochDays.toUtcMillis(19723) + 2 * 60 * 60 * 1000;
+        assertEquals(19723, EpochDays.fromMillis(millis, TimeZone.getTimeZone("UTC")));
+        assertEquals(19722, EpochDays.fromMillis(millis, TimeZone.getTimeZone("America/New_York")));
+    }
+}
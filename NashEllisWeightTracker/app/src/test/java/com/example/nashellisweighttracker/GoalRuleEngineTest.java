@@ -0,0 +1,117 @@
+package com.example.nashellisweighttracker;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+public class GoalRuleEngineTest {
+
+    private static final int DAY = 19723;
+
+    private static GoalEvent reached(int goal) {
+        return new GoalEvent(GoalEvent.Type.GOAL_REACHED, goal);
+    }
+
+    private static GoalEvent milestone(int percent) {
+        return new GoalEvent(GoalEvent.Type.MILESTONE, percent);
+    }
+
+    private static GoalEvent streak(int days) {
+        return new GoalEvent(GoalEvent.Type.STREAK, days);
+    }
+
+    @Test
+    public void crossingTheGoalFiresOnce() {
+        GoalProgress progress = GoalProgress.start(170f, 171f);
+
+        // 169.8 never equals 170, but it crosses it
+        assertEquals(Collections.singletonList(reached(170)),
+                GoalRuleEngine.evaluate(progress, 169.8f, DAY));
+        assertTrue(GoalRuleEngine.evaluate(progress, 169.5f, DAY).isEmpty());
+        assertTrue(GoalRuleEngine.evaluate(progress, 171f, DAY).isEmpty());
+        assertTrue(GoalRuleEngine.evaluate(progress, 169f, DAY).isEmpty());
+    }
+
+    @Test
+    public void gainingGoalIsReachedFromBelow() {
+        GoalProgress progress = GoalProgress.start(150f, 140f);
+        assertTrue(GoalRuleEngine.evaluate(progress, 139f, DAY).isEmpty());
+        assertEquals(Collections.singletonList(reached(150)),
+                GoalRuleEngine.evaluate(progress, 150.2f, DAY));
+    }
+
+    @Test
+    public void milestonesFireOnceAndOnlyTheHighestNewOne() {
+        GoalProgress progress = GoalProgress.start(160f, 200f);
+
+        assertEquals(Collections.singletonList(milestone(25)),
+                GoalRuleEngine.evaluate(progress, 190f, DAY));
+        assertTrue(GoalRuleEngine.evaluate(progress, 191f, DAY).isEmpty());
+        assertTrue(GoalRuleEngine.evaluate(progress, 189f, DAY).isEmpty());
+
+        // Jumping past 50% and 75% in one entry reports 75%
+        assertEquals(Collections.singletonList(milestone(75)),
+                GoalRuleEngine.evaluate(progress, 168f, DAY));
+        assertTrue(GoalRuleEngine.evaluate(progress, 180f, DAY).isEmpty());
+    }
+
+    @Test
+    public void reachingTheGoalImpliesMilestones() {
+        GoalProgress progress = GoalProgress.start(160f, 200f);
+        assertEquals(Collections.singletonList(reached(160)),
+                GoalRuleEngine.evaluate(progress, 159f, DAY));
+        assertTrue(GoalRuleEngine.evaluate(progress, 180f, DAY).isEmpty());
+    }
+
+    @Test
+    public void streaksCountConsecutiveDays() {
+        GoalProgress progress = GoalProgress.start(0f, 180f); // No goal set
+        for (int i = 0; i < 6; i++) {
+            assertTrue(GoalRuleEngine.evaluate(progress, 180f, DAY + i).isEmpty());
+        }
+        // A second entry on the same day does not extend the streak
+        assertTrue(GoalRuleEngine.evaluate(progress, 180f, DAY + 5).isEmpty());
+        assertEquals(Collections.singletonList(streak(7)),
+                GoalRuleEngine.evaluate(progress, 180f, DAY + 6));
+
+        // A gap restarts the streak, and 7 days does not fire a second time
+        GoalRuleEngine.evaluate(progress, 180f, DAY + 10);
+        for (int i = 11; i < 17; i++) {
+            assertTrue(GoalRuleEngine.evaluate(progress, 180f, DAY + i).isEmpty());
+        }
+        assertEquals(7, progress.getStreakDays());
+    }
+
+    @Test
+    public void backDatedEntriesDoNotBreakTheStreak() {
+        GoalProgress progress = GoalProgress.start(0f, 180f);
+        GoalRuleEngine.evaluate(progress, 180f, DAY);
+        GoalRuleEngine.evaluate(progress, 180f, DAY + 1);
+        GoalRuleEngine.evaluate(progress, 180f, DAY - 30);
+        GoalRuleEngine.evaluate(progress, 180f, WeightEntryList.UNKNOWN_DAY);
+        GoalRuleEngine.evaluate(progress, 180f, DAY + 2);
+        assertEquals(3, progress.getStreakDays());
+    }
+
+    @Test
+    public void newGoalStartsOverButKeepsStreak() {
+        GoalProgress progress = GoalProgress.start(170f, 180f);
+        for (int i = 0; i < 7; i++) GoalRuleEngine.evaluate(progress, 175f - i, DAY + i);
+        assertEquals(7, progress.getStreakDays());
+
+        assertSame(progress, GoalRuleEngine.progressFor(progress, 170f, 0f));
+        GoalProgress next = GoalRuleEngine.progressFor(progress, 160f, 169f);
+        assertEquals(160f, next.getGoalWeight(), 0f);
+        assertEquals(169f, next.getStartWeight(), 0f);
+
+        List<GoalEvent> events = GoalRuleEngine.evaluate(next, 159f, DAY + 7);
+        assertEquals(Arrays.asList(reached(160)), events);
+        assertEquals(8, next.getStreakDays());
+    }
+}
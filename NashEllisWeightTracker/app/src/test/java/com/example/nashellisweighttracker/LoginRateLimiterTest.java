@@ -0,0 +1,71 @@
+package com.example.nashellisweighttracker;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+public class LoginRateLimiterTest {
+
+    private long now = 1000;
+    private final LoginRateLimiter limiter = new LoginRateLimiter(3, 10000, 2, () -> now);
+
+    @Test
+    public void burstUpToCapacityThenRejects() {
+        assertEquals(0, limiter.tryAcquire("nash"));
+        assertEquals(0, limiter.tryAcquire("nash"));
+        assertEquals(0, limiter.tryAcquire("nash"));
+        assertEquals(10000, limiter.tryAcquire("nash"));
+
+        now += 4000;
+        assertEquals(6000, limiter.tryAcquire("nash"));
+    }
+
+    @Test
+    public void tokensRefillOverTime() {
+        for (int i = 0; i < 3; i++) limiter.tryAcquire("nash");
+
+        now += 10000;
+        assertEquals(0, limiter.tryAcquire("nash"));
+        assertEquals(10000, limiter.tryAcquire("nash"));
+
+        // A long wait refills to capacity, not beyond
+        now += 100000;
+        for (int i = 0; i < 3; i++) assertEquals(0, limiter.tryAcquire("nash"));
+        assertEquals(10000, limiter.tryAcquire("nash"));
+    }
+
+    @Test
+    public void usernamesHaveSeparateBuckets() {
+        for (int i = 0; i < 3; i++) limiter.tryAcquire("nash");
+        assertEquals(0, limiter.tryAcquire("ellis"));
+    }
+
+    @Test
+    public void resetClearsAttempts() {
+        for (int i = 0; i < 3; i++) limiter.tryAcquire("nash");
+        limiter.reset("nash");
+        assertEquals(0, limiter.tryAcquire("nash"));
+    }
+
+    @Test
+    public void throttledBucketIsNeverEvicted() {
+        for (int i = 0; i < 3; i++) limiter.tryAcquire("nash");
+        limiter.tryAcquire("ellis");
+
+        // With every slot still throttled, new usernames are turned away instead
+        for (int i = 0; i < 100; i++) assertEquals(10000, limiter.tryAcquire("user" + i));
+        assertEquals(10000, limiter.tryAcquire("nash"));
+    }
+
+    @Test
+    public void refilledBucketIsEvicted() {
+        for (int i = 0; i < 3; i++) limiter.tryAcquire("nash");
+        limiter.tryAcquire("ellis");
+
+        // "ellis" is back to capacity and makes room; "nash" is still throttled
+        now += 10000;
+        assertEquals(0, limiter.tryAcquire("third"));
+        assertEquals(0, limiter.tryAcquire("nash"));
+        assertEquals(10000, limiter.tryAcquire("nash"));
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.nashellisweighttracker;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+public class NotificationCoalescerTest {
+
+    private static SmsOutbox.Message message(long id, int userId, String phone, String key, String body) {
+        return new SmsOutbox.Message(id, userId, phone, body, 1, key);
+    }
+
+    @Test
+    public void messagesToOnePhoneBecomeOneSend() {
+        List<NotificationCoalescer.Batch> batches = NotificationCoalescer.coalesce(Arrays.asList(
+                message(1, 1, "5550100", "MILESTONE:25", "25%"),
+                message(2, 2, "5550199", "MILESTONE:25", "other"),
+                message(3, 1, "5550100", "GOAL_REACHED:170", "goal")));
+
+        assertEquals(2, batches.size());
+        assertEquals("5550100", batches.get(0).getPhone());
+        assertEquals("25%\ngoal", batches.get(0).getBody());
+        assertArrayEquals(new long[]{1, 3}, batches.get(0).getIds());
+        assertEquals("other", batches.get(1).getBody());
+    }
+
+    @Test
+    public void duplicatesAreSentOnceButSettledTogether() {
+        List<NotificationCoalescer.Batch> batches = NotificationCoalescer.coalesce(Arrays.asList(
+                message(1, 1, "5550100", "GOAL_REACHED:170", "goal"),
+                message(2, 1, "5550100", "GOAL_REACHED:170", "goal"),
+                message(3, 2, "5550100", "GOAL_REACHED:170", "goal for user 2")));
+
+        assertEquals(1, batches.size());
+        assertEquals("goal\ngoal for user 2", batches.get(0).getBody());
+        assertArrayEquals(new long[]{1, 2, 3}, batches.get(0).getIds());
+    }
+
+    @Test
+    public void messagesWithoutKeyAreNeverDeduplicated() {
+        List<NotificationCoalescer.Batch> batches = NotificationCoalescer.coalesce(Arrays.asList(
+                message(1, 1, "5550100", null, "hello"),
+                message(2, 1, "5550100", null, "hello")));
+        assertEquals("hello\nhello", batches.get(0).getBody());
+    }
+
+    @Test
+    public void nothingClaimedMeansNoSends() {
+        assertEquals(0, NotificationCoalescer.coalesce(Collections.emptyList()).size());
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.nashellisweighttracker;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class PasswordHasherTest {
+
+    private final PasswordHasher hasher = new PasswordHasher(PasswordHasher.MIN_ITERATIONS);
+
+    @Test
+    public void hashVerifiesOnlyTheSamePassword() {
+        String stored = hasher.hash("secret");
+        assertTrue(hasher.verify("secret", stored));
+        assertFalse(hasher.verify("Secret", stored));
+        assertFalse(hasher.verify("", stored));
+    }
+
+    @Test
+    public void hashesAreSalted() {
+        assertNotEquals(hasher.hash("secret"), hasher.hash("secret"));
+    }
+
+    @Test
+    public void iterationCountIsStoredWithTheHash() {
+        String stored = hasher.hash("secret");
+        assertTrue(stored.startsWith("pbkdf2-sha1$" + PasswordHasher.MIN_ITERATIONS + "$"));
+
+        // A costlier hasher still verifies the old hash but asks for an upgrade
+        PasswordHasher costlier = new PasswordHasher(PasswordHasher.MIN_ITERATIONS * 2);
+        assertTrue(costlier.verify("secret", stored));
+        assertTrue(costlier.needsRehash(stored));
+        assertFalse(hasher.needsRehash(stored));
+    }
+
+    @Test
+    public void plaintextIsVerifiedAndFlaggedForRehash() {
+        assertTrue(hasher.verify("secret", "secret"));
+        assertFalse(hasher.verify("secret", "secret2"));
+        assertTrue(hasher.needsRehash("secret"));
+    }
+
+    @Test
+    public void malformedHashesDoNotVerify() {
+        assertFalse(hasher.verify("secret", "pbkdf2-sha1$abc$00$00"));
+        assertFalse(hasher.verify("secret", "pbkdf2-sha1$10000$0g$00"));
+        assertFalse(hasher.verify("secret", "pbkdf2-sha1$10000"));
+        assertFalse(hasher.verify("secret", null));
+    }
+
+    @Test
+    public void calibrateNeverGoesBelowMinimum() {
+        int iterations = PasswordHasher.calibrate(0);
+        assertEquals(PasswordHasher.MIN_ITERATIONS, iterations);
+        assertEquals(0, PasswordHasher.calibrate(250) % PasswordHasher.MIN_ITERATIONS);
+    }
+}
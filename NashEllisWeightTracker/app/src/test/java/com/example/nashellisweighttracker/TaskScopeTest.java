@@ -0,0 +1,140 @@
+package com.example.nashellisweighttracker;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+
+public class TaskScopeTest {
+
+    // Runs queued work only when told to, standing in for a thread pool or the main looper
+    private static class ManualExecutor implements Executor {
+        final Queue<Runnable> queue = new ArrayDeque<>();
+
+        @Override
+        public void execute(Runnable command) {
+            queue.add(command);
+        }
+
+        void runAll() {
+            while (!queue.isEmpty()) queue.poll().run();
+        }
+    }
+
+    private final ManualExecutor diskIO = new ManualExecutor();
+    private final ManualExecutor background = new ManualExecutor();
+    private final ManualExecutor mainThread = new ManualExecutor();
+    private final List<String> results = new ArrayList<>();
+    private TaskScope scope;
+
+    @Before
+    public void setUp() {
+        scope = new TaskScope(new AppExecutors(diskIO, background, mainThread));
+    }
+
+    private void unexpected(Throwable error) {
+        throw new AssertionError(error);
+    }
+
+    @Test
+    public void resultIsDeliveredOnMainThread() {
+        scope.execute(() -> "loaded", results::add, this::unexpected);
+        assertTrue(background.queue.isEmpty());
+
+        diskIO.runAll();
+        assertTrue(results.isEmpty());
+        mainThread.runAll();
+        assertEquals(1, results.size());
+        assertEquals("loaded", results.get(0));
+    }
+
+    @Test
+    public void computeRunsOnBackgroundPool() {
+        scope.compute(() -> "hashed", results::add, this::unexpected);
+        assertTrue(diskIO.queue.isEmpty());
+
+        background.runAll();
+        mainThread.runAll();
+        assertEquals(1, results.size());
+        assertEquals("hashed", results.get(0));
+    }
+
+    @Test
+    public void queuedTaskIsSkippedAfterCancel() {
+        List<String> ran = new ArrayList<>();
+        scope.execute(() -> ran.add("task"), value -> results.add("callback"), this::unexpected);
+
+        scope.cancel();
+        diskIO.runAll();
+        mainThread.runAll();
+        assertTrue(ran.isEmpty());
+        assertTrue(results.isEmpty());
+        assertTrue(scope.isCancelled());
+    }
+
+    @Test
+    public void resultInFlightIsDroppedAfterCancel() {
+        scope.execute(() -> "loaded", results::add, this::unexpected);
+        diskIO.runAll();
+
+        scope.cancel();
+        mainThread.runAll();
+        assertTrue(results.isEmpty());
+    }
+
+    @Test
+    public void nothingIsQueuedOnceCancelled() {
+        scope.cancel();
+        scope.execute(() -> "loaded", results::add, this::unexpected);
+        assertTrue(diskIO.queue.isEmpty());
+    }
+
+    @Test
+    public void failureIsDeliveredToOnError() {
+        List<Throwable> errors = new ArrayList<>();
+        IllegalStateException failure = new IllegalStateException("disk full");
+        scope.<String>execute(() -> {
+            throw failure;
+        }, results::add, errors::add);
+
+        diskIO.runAll();
+        mainThread.runAll();
+        assertTrue(results.isEmpty());
+        assertEquals(1, errors.size());
+        assertSame(failure, errors.get(0));
+    }
+
+    @Test
+    public void failureInFlightIsDroppedAfterCancel() {
+        List<Throwable> errors = new ArrayList<>();
+        scope.<String>execute(() -> {
+            throw new IllegalStateException("disk full");
+        }, results::add, errors::add);
+        diskIO.runAll();
+
+        scope.cancel();
+        mainThread.runAll();
+        assertTrue(errors.isEmpty());
+    }
+
+    @Test
+    public void guardedCallbackStopsAfterCancel() {
+        Consumer<String> callback = scope.guard(results::add);
+        callback.accept("before");
+        scope.cancel();
+        callback.accept("after");
+
+        assertEquals(1, results.size());
+        assertFalse(results.contains("after"));
+    }
+}
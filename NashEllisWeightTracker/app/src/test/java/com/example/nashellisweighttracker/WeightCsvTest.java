@@ -0,0 +1,41 @@
+package com.example.nashellisweighttracker;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import java.text.ParseException;
+import java.util.Arrays;
+
+public class WeightCsvTest {
+
+    @Test
+    public void plainFieldsAreNotQuoted() {
+        assertEquals("165.5", WeightCsv.escape("165.5"));
+        assertEquals("", WeightCsv.escape(null));
+    }
+
+    @Test
+    public void fieldsWithSeparatorsAreQuoted() {
+        assertEquals("\"Jan 05, 2024\"", WeightCsv.escape("Jan 05, 2024"));
+        assertEquals("\"say \"\"hi\"\"\"", WeightCsv.escape("say \"hi\""));
+    }
+
+    @Test
+    public void parseLineRoundTripsEscapedFields() {
+        String line = WeightCsv.escape("165.5") + "," + WeightCsv.escape("Jan 05, 2024");
+        assertEquals(Arrays.asList("165.5", "Jan 05, 2024"), WeightCsv.parseLine(line));
+    }
+
+    @Test
+    public void parseLineKeepsEmptyFields() {
+        assertEquals(Arrays.asList("170", ""), WeightCsv.parseLine("170,"));
+    }
+
+    @Test
+    public void emptyDateIsUndated() throws ParseException {
+        assertEquals(WeightEntryList.UNKNOWN_DAY, WeightCsv.parseDate(""));
+        assertEquals(WeightEntryList.UNKNOWN_DAY, WeightCsv.parseDate(" "));
+        assertEquals(19723, WeightCsv.parseDate("2024-01-01"));
+    }
+}
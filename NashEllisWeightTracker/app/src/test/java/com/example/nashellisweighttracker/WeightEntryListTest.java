@@ -0,0 +1,54 @@
+package com.example.nashellisweighttracker;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+public class WeightEntryListTest {
+
+    @Test
+    public void growsPastInitialCapacity() {
+        WeightEntryList entries = new WeightEntryList(2);
+        for (int i = 1; i <= 5; i++) {
+            entries.add(i, 150f + i, 19723 + i);
+        }
+
+        assertEquals(5, entries.size());
+        assertEquals(5, entries.getId(4));
+        assertEquals(155f, entries.getWeight(4), 0f);
+        assertEquals(19728, entries.getEpochDay(4));
+    }
+
+    @Test
+    public void entriesAreFoundAndEditedById() {
+        WeightEntryList entries = new WeightEntryList();
+        entries.add(3, 170f, 19723);
+        entries.add(8, 168f, 19724);
+        entries.add(12, 166f, 19725);
+
+        assertEquals(1, entries.indexOfId(8));
+        assertEquals(-1, entries.indexOfId(9));
+
+        entries.set(entries.indexOfId(8), 167.5f, 19730);
+        assertEquals(167.5f, entries.getWeight(1), 0f);
+
+        entries.removeAt(entries.indexOfId(3));
+        assertEquals(2, entries.size());
+        assertEquals(0, entries.indexOfId(8));
+        assertEquals(12, entries.getId(1));
+    }
+
+    @Test
+    public void addAllAppendsPage() {
+        WeightEntryList entries = new WeightEntryList();
+        entries.add(1, 170f, 19723);
+        WeightEntryList page = new WeightEntryList();
+        page.add(2, 169f, 19724);
+        page.add(3, 168f, 19725);
+
+        entries.addAll(page);
+
+        assertEquals(3, entries.size());
+        assertEquals(2, entries.indexOfId(3));
+    }
+}